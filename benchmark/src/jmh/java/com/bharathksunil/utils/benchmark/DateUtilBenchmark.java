@@ -0,0 +1,91 @@
+package com.bharathksunil.utils.benchmark;
+
+import com.bharathksunil.utils.DateUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.bharathksunil.utils.DateUtil.DateTimeUnits.MINUTES;
+
+/**
+ * Benchmarks of the {@link DateUtil} hot paths over the times of the last year, like the rows of
+ * a feed.
+ *
+ * @author Bharath
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateUtilBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+    /**
+     * The number of rows visible on screen, which are checked by isTimePast on every bind
+     */
+    private static final int VISIBLE_ROWS = 32;
+
+    private final Date[] dates = new Date[SIZE];
+    private final long[] timestamps = new long[SIZE];
+    private final String[] dateStrings = new String[SIZE];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < SIZE; i++) {
+            timestamps[i] = now - TimeUnit.SECONDS.toMillis(random.nextInt(365 * 24 * 60 * 60));
+            dates[i] = new Date(timestamps[i]);
+            dateStrings[i] = DateUtil.getDateAsString(dates[i]);
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & MASK;
+        return index;
+    }
+
+    @Benchmark
+    public String getDateAsString() {
+        return DateUtil.getDateAsString(dates[next()]);
+    }
+
+    @Benchmark
+    public Date getDateFromString() throws ParseException {
+        return DateUtil.getDateFromString(dateStrings[next()]);
+    }
+
+    @Benchmark
+    public String getTimeDifference() {
+        int i = next();
+        return DateUtil.getTimeDifference(dateStrings[i], dateStrings[(i + 1) & MASK], MINUTES);
+    }
+
+    @Benchmark
+    public long getTimeDifferenceMillis() {
+        int i = next();
+        return DateUtil.getTimeDifference(timestamps[i], timestamps[(i + 1) & MASK], MINUTES);
+    }
+
+    @Benchmark
+    public boolean isTimePast() {
+        return DateUtil.isTimePast(dateStrings[next() % VISIBLE_ROWS]);
+    }
+}
@@ -0,0 +1,94 @@
+package com.bharathksunil.utils.benchmark;
+
+import com.bharathksunil.utils.FirebaseUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link FirebaseUtils} key conversions, over keys which need no change and
+ * keys which do.
+ *
+ * @author Bharath
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FirebaseUtilsBenchmark {
+
+    @Param({"unchanged", "changed"})
+    public String input;
+
+    private String[] emails;
+    private String[] emailKeys;
+    private String[] texts;
+    private String[] escapedKeys;
+    private final StringBuilder buffer = new StringBuilder(64);
+    private int index;
+
+    @Setup
+    public void setUp() {
+        if ("unchanged".equals(input)) {
+            emails = new String[]{"johndoe@example", "a_b-c+tag@mail", "bharathksunil@gmail"};
+            texts = new String[]{"users", "chat-room-42", "john doe@example"};
+        } else {
+            emails = new String[]{"John.Doe@Example.com", "a_b-c+tag.d@mail.co.in",
+                    "bharathk.sunil.k@gmail.com"};
+            texts = new String[]{"john.doe@example.com", "path/to/node", "price $5 #1 [a]"};
+        }
+        emailKeys = new String[emails.length];
+        escapedKeys = new String[texts.length];
+        for (int i = 0; i < emails.length; i++) {
+            emailKeys[i] = FirebaseUtils.getEmailAsFirebaseKey(emails[i]);
+        }
+        for (int i = 0; i < texts.length; i++) {
+            escapedKeys[i] = FirebaseUtils.escapeKey(texts[i]);
+        }
+    }
+
+    @Benchmark
+    public String getEmailAsFirebaseKey() {
+        index++;
+        return FirebaseUtils.getEmailAsFirebaseKey(emails[index % emails.length]);
+    }
+
+    @Benchmark
+    public String getEmailFromFirebaseKey() {
+        index++;
+        return FirebaseUtils.getEmailFromFirebaseKey(emailKeys[index % emailKeys.length]);
+    }
+
+    @Benchmark
+    public int appendEmailAsFirebaseKey() {
+        index++;
+        buffer.setLength(0);
+        return FirebaseUtils.appendEmailAsFirebaseKey(emails[index % emails.length], buffer)
+                .length();
+    }
+
+    @Benchmark
+    public String escapeKey() {
+        index++;
+        return FirebaseUtils.escapeKey(texts[index % texts.length]);
+    }
+
+    @Benchmark
+    public String unescapeKey() {
+        index++;
+        return FirebaseUtils.unescapeKey(escapedKeys[index % escapedKeys.length]);
+    }
+}
@@ -0,0 +1,90 @@
+package com.bharathksunil.utils.benchmark;
+
+import com.bharathksunil.utils.PasswordStrength;
+import com.bharathksunil.utils.ValidationUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link ValidationUtil} checks run on every keystroke of a signup form, for
+ * valid, invalid and long inputs.
+ *
+ * @author Bharath
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationUtilBenchmark {
+
+    @Param({"valid", "invalid", "long"})
+    public String input;
+
+    private String[] emails;
+    private String[] passwords;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        switch (input) {
+            case "valid":
+                emails = new String[]{"john.doe@example.com", "a_b-c+tag.d@mail.co.in",
+                        "bharathk.sunil.k@gmail.com", "x@y.io"};
+                passwords = new String[]{"passw0rd1", "s3cure-enough", "Tr0ub4dor&3",
+                        "c0rrecthorse"};
+                break;
+            case "invalid":
+                emails = new String[]{"john.doe@", "no-at-sign.example.com",
+                        "john..doe@example.com", "jane@example.c"};
+                passwords = new String[]{"password", "short1", "has space 1", "12345678"};
+                break;
+            case "long":
+            default:
+                emails = new String[]{repeat("first.last", 20) + "@" + repeat("sub.", 30) + "com",
+                        repeat("a", 64) + "@" + repeat("ab.", 60) + "c0m!"};
+                passwords = new String[]{repeat("correct horse battery staple ", 4),
+                        repeat("Tr0ub4dor&3", 10)};
+                break;
+        }
+    }
+
+    private static String repeat(String text, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+
+    @Benchmark
+    public boolean isEmailValid() {
+        index++;
+        return ValidationUtil.isEmailValid(emails[index % emails.length]);
+    }
+
+    @Benchmark
+    public boolean isPasswordStrong() {
+        index++;
+        return ValidationUtil.isPasswordStrong(passwords[index % passwords.length]);
+    }
+
+    @Benchmark
+    public PasswordStrength getPasswordStrength() {
+        index++;
+        return ValidationUtil.getPasswordStrength(passwords[index % passwords.length]);
+    }
+}
@@ -0,0 +1,81 @@
+package com.bharathksunil.utils;
+
+import android.app.Instrumentation;
+import android.content.res.Resources;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.widget.TextView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the shared tick of {@link RelativeTimeUtils} updates a bound label when it is due
+ * to change, and no longer once the view is unbound.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RelativeTimeTickerTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long DELAY = 500;
+
+    private final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+    private final Resources resources = InstrumentationRegistry.getTargetContext().getResources();
+    private TextView view;
+
+    @Test
+    public void bind_updatesTheLabelWhenItChanges() {
+        final long time = System.currentTimeMillis() - MINUTE + DELAY;
+        bind(time);
+        assertEquals(resources.getString(R.string.relative_time_just_now), getText());
+
+        SystemClock.sleep(3 * DELAY);
+        assertEquals(resources.getQuantityString(R.plurals.relative_time_minutes_ago, 1, 1),
+                getText());
+        unbind();
+    }
+
+    @Test
+    public void unbind_stopsTheUpdates() {
+        bind(System.currentTimeMillis() - MINUTE + DELAY);
+        unbind();
+
+        SystemClock.sleep(3 * DELAY);
+        assertEquals(resources.getString(R.string.relative_time_just_now), getText());
+    }
+
+    private void bind(final long time) {
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                view = new TextView(InstrumentationRegistry.getTargetContext());
+                RelativeTimeUtils.bindRelativeTime(view, time);
+            }
+        });
+    }
+
+    private void unbind() {
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                RelativeTimeUtils.unbindRelativeTime(view);
+            }
+        });
+    }
+
+    private String getText() {
+        final String[] text = new String[1];
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                text[0] = view.getText().toString();
+            }
+        });
+        return text[0];
+    }
+}
@@ -0,0 +1,69 @@
+package com.bharathksunil.utils;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Build;
+import android.os.Debug;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks that drawing a {@link TextDrawable} does not allocate, as it is drawn on the UI thread
+ * for every avatar of a scrolling list.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TextDrawableAllocationTest {
+
+    private static final int SIZE = 96;
+    private static final int FRAMES = 100;
+    private static final int ATTEMPTS = 5;
+    private static final String OBJECTS_ALLOCATED = "art.gc.objects-allocated";
+
+    @Test
+    public void draw_doesNotAllocate() {
+        // the runtime stats are only available on ART from Marshmallow
+        assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+                && Debug.getRuntimeStat(OBJECTS_ALLOCATED) != null);
+        TextDrawable[] drawables = {
+                TextDrawable.builder().buildRect("A", Color.RED),
+                TextDrawable.builder().beginConfig().withBorder(4).endConfig()
+                        .buildRound("B", Color.BLUE),
+                TextDrawable.builder().beginConfig().withBorder(4).bold().endConfig()
+                        .buildRoundRect("C", Color.GREEN, 8)
+        };
+        Bitmap bitmap = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        for (TextDrawable drawable : drawables) {
+            drawable.setBounds(0, 0, SIZE, SIZE);
+            // the first draw may load the glyphs of the text
+            drawable.draw(canvas);
+        }
+
+        // the count is of the whole process, so the other threads may allocate while drawing:
+        // the quietest of a few attempts is kept, an allocation per draw would still be counted
+        // FRAMES * drawables.length times
+        long allocated = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            long before = getObjectsAllocated();
+            for (int i = 0; i < FRAMES; i++) {
+                for (TextDrawable drawable : drawables) {
+                    drawable.draw(canvas);
+                }
+            }
+            allocated = Math.min(allocated, getObjectsAllocated() - before);
+        }
+
+        assertTrue("allocated " + allocated + " objects", allocated < FRAMES);
+        bitmap.recycle();
+    }
+
+    private static long getObjectsAllocated() {
+        return Long.parseLong(Debug.getRuntimeStat(OBJECTS_ALLOCATED));
+    }
+}
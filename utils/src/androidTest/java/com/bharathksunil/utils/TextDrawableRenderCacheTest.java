@@ -0,0 +1,59 @@
+package com.bharathksunil.utils;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the drawables which share a bitmap of the render cache render the same.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TextDrawableRenderCacheTest {
+
+    private static final int SIZE = 96;
+
+    @After
+    public void tearDown() {
+        TextDrawable.disableRenderCache();
+    }
+
+    @Test
+    public void draw_doesNotShareTheBitmapOfTemplatesWithAnotherIntrinsicSize() {
+        TextDrawable.Template small = TextDrawable.Template.of(TextDrawable.builder()
+                .beginConfig().width(SIZE / 2).height(SIZE / 2).endConfig().round())
+                .withRenderCache();
+        TextDrawable.Template large = TextDrawable.Template.of(TextDrawable.builder()
+                .beginConfig().width(SIZE).height(SIZE).endConfig().round())
+                .withRenderCache();
+        Bitmap expected = draw(large.build("AB", Color.RED));
+
+        TextDrawable.enableRenderCache(1024 * 1024);
+        Bitmap first = draw(small.build("AB", Color.RED));
+        Bitmap second = draw(large.build("AB", Color.RED));
+
+        // both drawables are drawn at the same bounds, but their text is sized and placed for
+        // their own intrinsic size
+        assertEquals(2, TextDrawable.getRenderCacheStats().getMissCount());
+        assertTrue(expected.sameAs(second));
+        assertFalse(first.sameAs(second));
+        expected.recycle();
+        first.recycle();
+        second.recycle();
+    }
+
+    private static Bitmap draw(TextDrawable drawable) {
+        Bitmap bitmap = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        drawable.setBounds(0, 0, SIZE, SIZE);
+        drawable.draw(new Canvas(bitmap));
+        return bitmap;
+    }
+}
@@ -0,0 +1,144 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Validates batches of emails, phone numbers and contacts into bitmaps for {@link ValidationUtil}.
+ * The regular expressions in use are captured when the batch starts, and every range of the
+ * batch works on its own {@link Matcher} which is reset for each value, so matcher state is
+ * never shared between threads and no matcher is allocated per value.
+ *
+ * @author Bharath
+ */
+final class BatchValidator {
+
+    /**
+     * The number of bits of the bitmap used by each contact, one for the email and one for the
+     * phone number
+     */
+    static final int CONTACT_BITS = 2;
+
+    @Nullable
+    private final Pattern emailRegex;
+    @Nullable
+    private final Pattern phoneNumberRegex;
+
+    BatchValidator(@Nullable final Pattern emailRegex, @Nullable final Pattern phoneNumberRegex) {
+        this.emailRegex = emailRegex;
+        this.phoneNumberRegex = phoneNumberRegex;
+    }
+
+    /**
+     * @return a matcher of the email regex for a single thread, null if the default rule is used
+     */
+    @Nullable
+    Matcher newEmailMatcher() {
+        return emailRegex == null ? null : emailRegex.matcher("");
+    }
+
+    /**
+     * @return a matcher of the phone number regex for a single thread, null if the default rule
+     * is used
+     */
+    @Nullable
+    Matcher newPhoneNumberMatcher() {
+        return phoneNumberRegex == null ? null : phoneNumberRegex.matcher("");
+    }
+
+    static boolean isEmailValid(@Nullable final Matcher matcher, @Nullable final CharSequence email) {
+        if (email == null) {
+            return false;
+        }
+        return matcher == null ? DefaultValidators.isEmailValid(email) : matcher.reset(email).find();
+    }
+
+    static boolean isPhoneNumberValid(@Nullable final Matcher matcher,
+                                      @Nullable final CharSequence phone) {
+        if (phone == null) {
+            return false;
+        }
+        return matcher == null ? DefaultValidators.isPhoneNumberValid(phone)
+                : matcher.reset(phone).find();
+    }
+
+    /**
+     * Call this method to validate a range of the emails or phone numbers
+     *
+     * @param values the emails or phone numbers
+     * @param email  true if the values are emails
+     * @param from   the index of the first value, inclusive and a multiple of 64
+     * @param to     the index of the last value, exclusive
+     * @param words  the bitmap, the bit of each valid value is set
+     * @return the number of invalid values
+     */
+    int validate(@NonNull final List<? extends CharSequence> values,
+                 final boolean email,
+                 final int from,
+                 final int to,
+                 @NonNull final long[] words) {
+        Matcher matcher = email ? newEmailMatcher() : newPhoneNumberMatcher();
+        int failures = 0;
+        for (int i = from; i < to; i++) {
+            CharSequence value = values.get(i);
+            if (email ? isEmailValid(matcher, value) : isPhoneNumberValid(matcher, value)) {
+                words[i >>> 6] |= 1L << i;
+            } else {
+                failures++;
+            }
+        }
+        release(matcher);
+        return failures;
+    }
+
+    /**
+     * Call this method to validate a range of the contacts
+     *
+     * @param contacts the contacts
+     * @param fields   the accessor of the email and phone number of a contact
+     * @param from     the index of the first contact, inclusive and a multiple of 32
+     * @param to       the index of the last contact, exclusive
+     * @param words    the bitmap, see {@link ValidationUtil#validateContacts}
+     * @return the number of contacts with an invalid email or phone number
+     */
+    <T> int validateContacts(@NonNull final List<T> contacts,
+                             @NonNull final ValidationUtil.ContactFields<? super T> fields,
+                             final int from,
+                             final int to,
+                             @NonNull final long[] words) {
+        Matcher emailMatcher = newEmailMatcher();
+        Matcher phoneNumberMatcher = newPhoneNumberMatcher();
+        int failures = 0;
+        for (int i = from; i < to; i++) {
+            T contact = contacts.get(i);
+            int bit = i * CONTACT_BITS;
+            long bits = 0;
+            if (isEmailValid(emailMatcher, fields.getEmail(contact))) {
+                bits |= 1;
+            }
+            if (isPhoneNumberValid(phoneNumberMatcher, fields.getPhoneNumber(contact))) {
+                bits |= 2;
+            }
+            if (bits != 3) {
+                failures++;
+            }
+            words[bit >>> 6] |= bits << bit;
+        }
+        release(emailMatcher);
+        release(phoneNumberMatcher);
+        return failures;
+    }
+
+    /**
+     * Drops the reference of the matcher to the last value, so the batch can be collected
+     */
+    static void release(@Nullable final Matcher matcher) {
+        if (matcher != null) {
+            matcher.reset("");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A thread safe cache holding at most a fixed number of entries, the least recently used or the
+ * oldest entry is evicted when the cache is full, as per its {@link EvictionPolicy}. It keeps the
+ * counters reported by {@link CacheStats}.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author Bharath
+ */
+final class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final LinkedHashMap<K, V> map;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param maxSize the maximum number of entries, must be positive
+     */
+    BoundedCache(final int maxSize) {
+        this(maxSize, EvictionPolicy.LEAST_RECENTLY_USED);
+    }
+
+    /**
+     * @param maxSize  the maximum number of entries, must be positive
+     * @param eviction the entry evicted when the cache is full
+     */
+    BoundedCache(final int maxSize, @NonNull final EvictionPolicy eviction) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        boolean accessOrder = requireNonNull(eviction) == EvictionPolicy.LEAST_RECENTLY_USED;
+        this.map = new LinkedHashMap<K, V>(16, 0.75f, accessOrder) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > BoundedCache.this.maxSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param key the key to look up
+     * @return the cached value or null if the key is not in the cache
+     */
+    @Nullable
+    synchronized V get(@NonNull final K key) {
+        V value = map.get(requireNonNull(key));
+        if (value == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return value;
+    }
+
+    /**
+     * Removes an entry returned by {@link #get(Object)} that the caller found stale, and counts
+     * that lookup as a miss instead of a hit.
+     *
+     * @param key   the key that was looked up
+     * @param value the stale value returned for it
+     */
+    synchronized void removeStale(@NonNull final K key, @NonNull final V value) {
+        if (map.get(requireNonNull(key)) == value) {
+            map.remove(key);
+        }
+        hitCount--;
+        missCount++;
+    }
+
+    /**
+     * Adds the value to the cache, evicting an entry if the cache is full
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    synchronized void put(@NonNull final K key, @NonNull final V value) {
+        map.put(requireNonNull(key), requireNonNull(value));
+    }
+
+    /**
+     * Removes all the entries, the counters are kept.
+     */
+    synchronized void clear() {
+        map.clear();
+    }
+
+    @NonNull
+    synchronized CacheStats getStats() {
+        return new CacheStats(hitCount, missCount, evictionCount, map.size(), maxSize);
+    }
+}
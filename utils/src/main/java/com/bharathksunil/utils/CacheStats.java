@@ -0,0 +1,92 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+
+import java.util.Locale;
+
+/**
+ * An immutable snapshot of the counters of one of the caches used by the utils, use it to tune
+ * the size of the cache for your app.
+ *
+ * @author Bharath
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+    private final int maxSize;
+
+    CacheStats(final long hitCount,
+               final long missCount,
+               final long evictionCount,
+               final int size,
+               final int maxSize) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the combined counters of this and the other cache, for caches used together
+     */
+    @NonNull
+    CacheStats plus(@NonNull final CacheStats other) {
+        return new CacheStats(hitCount + other.hitCount, missCount + other.missCount,
+                evictionCount + other.evictionCount, size + other.size, maxSize + other.maxSize);
+    }
+
+    /**
+     * @return the number of lookups that were answered from the cache
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of lookups that were not found in the cache
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of entries removed to keep the cache within its maximum size
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the number of entries in the cache
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the maximum number of entries the cache can hold
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the fraction of the lookups that were hits, 0 if there were no lookups
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "CacheStats{hits=%d, misses=%d, evictions=%d, size=%d/%d, hitRate=%.2f}",
+                hitCount, missCount, evictionCount, size, maxSize, getHitRate());
+    }
+}
@@ -0,0 +1,88 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+
+/**
+ * A compact dictionary of the most common passwords, in lower case and sorted so that a password
+ * is looked up by binary search without allocating.
+ *
+ * @author Bharath
+ */
+final class CommonPasswords {
+
+    private static final String[] PASSWORDS = {
+            "000000", "00000000", "1111", "111111", "11111111", "112233", "11223344", "121212",
+            "123123", "123321", "1234", "12341234", "12345", "123456", "1234567", "12345678",
+            "123456789", "1234567890", "123456a", "123qwe", "131313", "159753", "1q2w3e",
+            "1q2w3e4r", "1qaz2wsx", "2000", "555555", "654321", "666666", "696969", "777777",
+            "7777777", "88888888", "987654321", "99999999", "a123456", "aaaaaa", "abc123",
+            "abcd1234", "abcdef", "abcdefg", "abcdefgh", "access", "admin", "admin123", "amanda",
+            "andrew", "asdf1234", "asdfgh", "asdfghjkl", "ashley", "austin", "baseball", "batman",
+            "biteme", "buster", "changeme", "charlie", "cheese", "chelsea", "computer", "dallas",
+            "daniel", "default", "dragon", "dragon123", "football", "football1", "freedom",
+            "george", "ginger", "guest", "harley", "hockey", "hunter", "iloveyou", "iloveyou1",
+            "india123", "jennifer", "jessica", "jordan", "joshua", "killer", "klaster", "letmein",
+            "letmein1", "login", "love", "maggie", "master", "matrix", "matthew", "michael",
+            "michelle", "monkey", "monkey123", "mustang", "nicole", "p@ssw0rd", "pass", "passw0rd",
+            "password", "password1", "password123", "pepper", "princess", "princess1", "q1w2e3r4",
+            "qazwsx", "qwe123", "qwerty", "qwerty123", "qwertyuiop", "ranger", "robert", "root",
+            "secret", "secret123", "shadow", "soccer", "starwars", "summer", "sunshine",
+            "sunshine1", "superman", "taylor", "test", "test123", "thomas", "thunder", "tigger",
+            "toor", "trustno1", "welcome", "welcome1", "whatever", "yankees", "zaq12wsx", "zxcvbn",
+            "zxcvbnm"
+    };
+    private static final int MAX_LENGTH;
+
+    static {
+        int max = 0;
+        for (String password : PASSWORDS) {
+            max = Math.max(max, password.length());
+        }
+        MAX_LENGTH = max;
+    }
+
+    private CommonPasswords() {
+    }
+
+    /**
+     * @param password the password
+     * @return true if the password, ignoring the case of ASCII letters, is a common one
+     */
+    static boolean contains(@NonNull final CharSequence password) {
+        if (password.length() > MAX_LENGTH) {
+            return false;
+        }
+        int low = 0;
+        int high = PASSWORDS.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(PASSWORDS[middle], password);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compares like {@link String#compareTo(String)}, with the ASCII letters of the password in
+     * lower case
+     */
+    private static int compare(@NonNull final String entry, @NonNull final CharSequence password) {
+        int length = Math.min(entry.length(), password.length());
+        for (int i = 0; i < length; i++) {
+            char c = password.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (entry.charAt(i) != c) {
+                return entry.charAt(i) - c;
+            }
+        }
+        return entry.length() - password.length();
+    }
+}
@@ -0,0 +1,206 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A compiled date format for a single (pattern, locale, timezone) combination that can be shared
+ * across threads. The pattern is compiled only once into a prototype {@link SimpleDateFormat},
+ * every thread then works on its own clone of it, as {@link SimpleDateFormat} is not thread safe.
+ * Fixed width patterns like the default one are handled by a {@link FastDatePattern} instead.
+ * <br/>
+ * Instances are immutable, {@link DateUtil} replaces its formatter whenever the pattern, locale or
+ * timezone in use changes.
+ *
+ * @author Bharath
+ */
+final class DateFormatter {
+
+    private final String pattern;
+    private final Locale locale;
+    private final ZoneOffsetTable zone;
+    private final SimpleDateFormat prototype;
+    @Nullable
+    private final FastDatePattern fastPattern;
+    private final ThreadLocal<ThreadState> threadStates = new ThreadLocal<ThreadState>() {
+        @Override
+        protected ThreadState initialValue() {
+            return new ThreadState();
+        }
+    };
+
+    DateFormatter(@NonNull final String pattern,
+                  @NonNull final Locale locale,
+                  @NonNull final ZoneOffsetTable zone) {
+        this.pattern = requireNonNull(pattern);
+        this.locale = requireNonNull(locale);
+        this.zone = requireNonNull(zone);
+        this.prototype = new SimpleDateFormat(pattern, locale);
+        this.prototype.setTimeZone(zone.getTimeZone());
+        this.fastPattern = FastDatePattern.compile(pattern, locale, zone);
+    }
+
+    /**
+     * Call this method to check if this formatter was compiled for the given combination
+     *
+     * @param pattern the date pattern
+     * @param locale  the locale
+     * @param zone    the offsets of the timezone
+     * @return true if this formatter can be used for the combination
+     */
+    boolean isFor(@NonNull final String pattern,
+                  @NonNull final Locale locale,
+                  @NonNull final ZoneOffsetTable zone) {
+        return this.zone == zone && this.pattern.equals(pattern) && this.locale.equals(locale);
+    }
+
+    /**
+     * Call this method to format the date into the pattern of this formatter
+     *
+     * @param date the date to be formatted
+     * @return the formatted date string
+     */
+    @NonNull
+    String format(@NonNull final Date date) {
+        return format(date.getTime());
+    }
+
+    /**
+     * Call this method to format the time into the pattern of this formatter
+     *
+     * @param millis the milliseconds since epoch
+     * @return the formatted date string
+     */
+    @NonNull
+    String format(final long millis) {
+        ThreadState state = threadStates.get();
+        if (fastPattern != null) {
+            StringBuilder buffer = state.buffer;
+            buffer.setLength(0);
+            if (fastPattern.format(millis, buffer)) {
+                return buffer.toString();
+            }
+        }
+        return state.getFormat().format(new Date(millis));
+    }
+
+    /**
+     * Call this method to parse the date string in the pattern of this formatter
+     *
+     * @param date the date string
+     * @return the parsed date
+     * @throws ParseException if the string is not a date of this pattern
+     */
+    @NonNull
+    Date parse(@NonNull final String date) throws ParseException {
+        return new Date(parseMillis(date));
+    }
+
+    /**
+     * Call this method to parse the date string in the pattern of this formatter
+     *
+     * @param date the date string
+     * @return the milliseconds since epoch
+     * @throws ParseException if the string is not a date of this pattern
+     */
+    long parseMillis(@NonNull final String date) throws ParseException {
+        if (fastPattern != null) {
+            long millis = fastPattern.parse(date);
+            if (millis != FastDatePattern.FAILED) {
+                return millis;
+            }
+        }
+        return threadStates.get().getFormat().parse(date).getTime();
+    }
+
+    /**
+     * Call this method to parse a range of the date strings, the formatter and the buffers of the
+     * thread are looked up only once for the whole range.
+     *
+     * @param dates      the date strings
+     * @param from       the index of the first date string, inclusive
+     * @param to         the index of the last date string, exclusive
+     * @param timestamps filled with the milliseconds since epoch of each date string at the same
+     *                   index, or {@link DateUtil#INVALID_TIMESTAMP} if it could not be parsed
+     * @return the number of date strings that could not be parsed
+     */
+    int parseMillis(@NonNull final List<String> dates,
+                    final int from,
+                    final int to,
+                    @NonNull final long[] timestamps) {
+        ThreadState state = threadStates.get();
+        ParsePosition position = state.position;
+        int failures = 0;
+        for (int i = from; i < to; i++) {
+            String date = dates.get(i);
+            long millis = DateUtil.INVALID_TIMESTAMP;
+            if (date != null) {
+                millis = fastPattern == null ? FastDatePattern.FAILED : fastPattern.parse(date);
+                if (millis == FastDatePattern.FAILED) {
+                    position.setIndex(0);
+                    position.setErrorIndex(-1);
+                    Date parsed = state.getFormat().parse(date, position);
+                    millis = parsed == null ? DateUtil.INVALID_TIMESTAMP : parsed.getTime();
+                }
+            }
+            if (millis == DateUtil.INVALID_TIMESTAMP) {
+                failures++;
+            }
+            timestamps[i] = millis;
+        }
+        return failures;
+    }
+
+    /**
+     * Call this method to format a range of the times, the formatter and the buffers of the thread
+     * are looked up only once for the whole range.
+     *
+     * @param timestamps the milliseconds since epoch
+     * @param from       the index of the first time, inclusive
+     * @param to         the index of the last time, exclusive
+     * @param dates      filled with the date string of each time at the same index
+     */
+    void format(@NonNull final long[] timestamps,
+                final int from,
+                final int to,
+                @NonNull final String[] dates) {
+        ThreadState state = threadStates.get();
+        StringBuilder buffer = state.buffer;
+        for (int i = from; i < to; i++) {
+            buffer.setLength(0);
+            if (fastPattern != null && fastPattern.format(timestamps[i], buffer)) {
+                dates[i] = buffer.toString();
+            } else {
+                dates[i] = state.getFormat().format(new Date(timestamps[i]));
+            }
+        }
+    }
+
+    /**
+     * The per thread state of a formatter, the {@link SimpleDateFormat} is cloned only when a
+     * date cannot be handled by the {@link FastDatePattern}.
+     */
+    private final class ThreadState {
+        private final StringBuilder buffer = new StringBuilder(32);
+        private final ParsePosition position = new ParsePosition(0);
+        @Nullable
+        private SimpleDateFormat format;
+
+        @NonNull
+        private SimpleDateFormat getFormat() {
+            if (format == null) {
+                format = (SimpleDateFormat) prototype.clone();
+            }
+            return format;
+        }
+    }
+}
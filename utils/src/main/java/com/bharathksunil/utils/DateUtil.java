@@ -2,18 +2,18 @@ package com.bharathksunil.utils;
 
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.annotation.RequiresApi;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
 import timber.log.Timber;
 
-import static com.bharathksunil.utils.DateUtil.DateTimeUnits.MINUTES;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -23,8 +23,20 @@ import static java.util.Objects.requireNonNull;
  */
 @SuppressWarnings({"unused", "WeakerAccess", "squid:S2209", "squid:S2440"})
 public class DateUtil {
-    private static String datePattern = "hh:mm:ss a, dd MMMM yyyy";
-    private static String timeZone = "IST";
+    /**
+     * Set by the batch methods for the date strings that could not be parsed
+     */
+    public static final long INVALID_TIMESTAMP = Long.MIN_VALUE;
+    private static volatile String datePattern = "hh:mm:ss a, dd MMMM yyyy";
+    private static volatile ZoneOffsetTable zone = resolveZone("Asia/Kolkata");
+    private static volatile DateFormatter formatter;
+    /**
+     * Number of time strings remembered by {@link #isTimePast(String)}, must be a power of 2
+     */
+    private static final int PARSED_TIME_SLOTS = 64;
+    private static final ParsedTime[] parsedTimes = new ParsedTime[PARSED_TIME_SLOTS];
+    @Nullable
+    private static volatile BoundedCache<String, ParsedTime> parseCache;
 
     /**
      * Initialise this in the Apps Application class's onCreate() and pass a valid date pattern you
@@ -36,17 +48,64 @@ public class DateUtil {
     public static void setDatePattern(@NonNull final String datePattern) {
         requireNonNull(datePattern);
         DateUtil.datePattern = datePattern;
+        formatter = null;
     }
 
     /**
      * Initialise this in the Apps Application class's onCreate() and pass a valid timeZone.
-     * If not set, by default IST will be used.
+     * If not set, by default IST(Asia/Kolkata) will be used. The timezone is resolved once here and
+     * used for formatting, parsing and comparing all the date strings.
      *
-     * @param timeZone the timeZone that must be used for the app
+     * @param timeZone the timeZone that must be used for the app, preferably a region ID like
+     *                 "Asia/Kolkata" as the three letter IDs are not known on all devices.
      */
     public static void setTimeZone(@NonNull final String timeZone) {
         requireNonNull(timeZone);
-        DateUtil.timeZone = timeZone;
+        zone = resolveZone(timeZone);
+        formatter = null;
+    }
+
+    @NonNull
+    private static ZoneOffsetTable resolveZone(@NonNull final String timeZone) {
+        TimeZone resolved = TimeZone.getTimeZone(timeZone);
+        if (resolved.getID().equals("GMT") && !timeZone.equals("GMT")) {
+            Timber.w("Unknown timeZone %s, GMT will be used instead", timeZone);
+        }
+        return ZoneOffsetTable.create(resolved, System.currentTimeMillis());
+    }
+
+    /**
+     * Call this method to remember the results of parsing the date strings, useful when the same
+     * date strings are parsed again and again, like the times of the slots of a schedule. It is
+     * used by {@link #getDateFromString(String)}, {@link #getTimestampFromDate(String)} and the
+     * methods working on date strings. The cache is emptied whenever the date pattern, locale or
+     * timezone changes, so it never gives results of a different pattern.<br/>
+     * Each entry takes about 100 bytes along with the date string, choose the size accordingly on
+     * low memory devices. Calling this again replaces the cache with an empty one.
+     *
+     * @param maxEntries the maximum number of date strings to remember
+     */
+    public static void enableParseCache(final int maxEntries) {
+        parseCache = new BoundedCache<>(maxEntries);
+    }
+
+    /**
+     * Call this method to stop caching the parsed date strings and release the cache.
+     */
+    public static void disableParseCache() {
+        parseCache = null;
+    }
+
+    /**
+     * Call this method to get the hit, miss and eviction counts of the parse cache.
+     *
+     * @return the stats of the cache or null if the cache is not enabled.
+     * @see #enableParseCache(int)
+     */
+    @Nullable
+    public static CacheStats getParseCacheStats() {
+        BoundedCache<String, ParsedTime> cache = parseCache;
+        return cache == null ? null : cache.getStats();
     }
 
     /**
@@ -57,7 +116,7 @@ public class DateUtil {
      */
     public static String getDateAsString(@NonNull final Date date) {
         requireNonNull(date);
-        return new SimpleDateFormat(datePattern, Locale.getDefault()).format(date);
+        return getFormatter().format(date);
     }
 
     /**
@@ -69,7 +128,60 @@ public class DateUtil {
      */
     public static Date getDateFromString(@NonNull final String date) throws ParseException {
         requireNonNull(date);
-        return new SimpleDateFormat(datePattern, Locale.getDefault()).parse(date);
+        return new Date(parseMillis(date));
+    }
+
+    /**
+     * Returns the formatter for the current {@link #datePattern}, default locale and the timezone
+     * set by {@link #setTimeZone(String)}. The pattern is compiled only when one of them changes,
+     * and the formatter can be used from any thread.
+     *
+     * @return the formatter in use
+     */
+    @NonNull
+    static DateFormatter getFormatter() {
+        DateFormatter current = formatter;
+        Locale locale = Locale.getDefault();
+        ZoneOffsetTable currentZone = zone;
+        if (current == null || !current.isFor(datePattern, locale, currentZone)) {
+            current = new DateFormatter(datePattern, locale, currentZone);
+            formatter = current;
+            BoundedCache<String, ParsedTime> cache = parseCache;
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Parses the date string with the current formatter, using the parse cache when it is enabled.
+     *
+     * @param date the date string
+     * @return the milliseconds since epoch
+     * @throws ParseException if the string is not a date of the current pattern
+     */
+    static long parseMillis(@NonNull final String date) throws ParseException {
+        return parseTime(getFormatter(), date).millis;
+    }
+
+    @NonNull
+    private static ParsedTime parseTime(@NonNull final DateFormatter current,
+                                        @NonNull final String date) throws ParseException {
+        BoundedCache<String, ParsedTime> cache = parseCache;
+        ParsedTime parsedTime = cache == null ? null : cache.get(date);
+        if (parsedTime != null && parsedTime.formatter != current) {
+            // parsed with a previous pattern, locale or zone
+            cache.removeStale(date, parsedTime);
+            parsedTime = null;
+        }
+        if (parsedTime == null) {
+            parsedTime = new ParsedTime(current, date, current.parseMillis(date));
+            if (cache != null) {
+                cache.put(date, parsedTime);
+            }
+        }
+        return parsedTime;
     }
 
     /**
@@ -79,9 +191,7 @@ public class DateUtil {
      */
     @NonNull
     public static String getCurrentDateTimeAsString() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeZone(TimeZone.getTimeZone(timeZone));
-        return getDateAsString(calendar.getTime());
+        return getFormatter().format(System.currentTimeMillis());
     }
 
     /**
@@ -99,26 +209,7 @@ public class DateUtil {
                                                    @NonNull final DateTimeUnits timeUnits) {
         requireNonNull(timeOne);
         requireNonNull(timeTwo);
-        requireNonNull(timeUnits);
-        long diffInMs = Math.abs(timeOne.getTime() - timeTwo.getTime());
-        int days = (int) TimeUnit.MILLISECONDS.toDays(diffInMs);
-        int hours = (int) (TimeUnit.MILLISECONDS.toHours(diffInMs) - TimeUnit.DAYS.toHours(days));
-        int minutes = (int) (TimeUnit.MILLISECONDS.toMinutes(diffInMs)
-                - TimeUnit.HOURS.toMinutes(TimeUnit.MILLISECONDS.toHours(diffInMs)));
-        int seconds = (int) TimeUnit.MILLISECONDS.toSeconds(diffInMs);
-        switch (timeUnits) {
-            case DAYS:
-                return Long.toString(days);
-            case SECONDS:
-                return Long.toString(seconds);
-            case MINUTES:
-                return Long.toString(minutes);
-            case HOURS:
-                return Long.toString(hours);
-            case MILLISECONDS:
-            default:
-                return Long.toString(diffInMs);
-        }
+        return Long.toString(getAbsoluteTimeDifference(timeOne.getTime(), timeTwo.getTime(), timeUnits));
     }
 
     /**
@@ -139,15 +230,32 @@ public class DateUtil {
         requireNonNull(timeTwo);
         requireNonNull(timeUnits);
         try {
-            Date firstDate = getDateFromString(timeOne);
-            Date secondDate = getDateFromString(timeTwo);
-            return getAbsoluteTimeDifference(secondDate, firstDate, timeUnits);
+            long firstDate = parseMillis(timeOne);
+            long secondDate = parseMillis(timeTwo);
+            return Long.toString(getAbsoluteTimeDifference(secondDate, firstDate, timeUnits));
         } catch (ParseException e) {
             Timber.e(e);
         }
         return "NA";
     }
 
+    /**
+     * Get absolute difference between 2 times, given as milliseconds since the epoch, in the time
+     * unit you need. Unlike the {@link Date} and {@link String} variants this method does not
+     * allocate, use it when comparing or bucketing a large number of times.
+     *
+     * @param timeOne   the first time in milliseconds since the epoch
+     * @param timeTwo   the second time in milliseconds since the epoch
+     * @param timeUnits the {@link DateTimeUnits} in which the difference is required
+     * @return Difference |timeOne - timeTwo| between the two times in the unit which was requested
+     * @see #getTimeDifference(long, long, DateTimeUnits)
+     */
+    public static long getAbsoluteTimeDifference(final long timeOne,
+                                                 final long timeTwo,
+                                                 @NonNull final DateTimeUnits timeUnits) {
+        return getTimeDifference(Math.abs(timeOne - timeTwo), timeUnits);
+    }
+
     /**
      * Get difference between 2 times in the time unit you need.<br/>
      * <b>How to use:</b> Pass in the two dates you want the difference with the unit of difference.
@@ -163,26 +271,7 @@ public class DateUtil {
                                            @NonNull final DateTimeUnits timeUnits) {
         requireNonNull(timeOne);
         requireNonNull(timeTwo);
-        requireNonNull(timeUnits);
-        long diffInMs = timeOne.getTime() - timeTwo.getTime();
-        int days = (int) TimeUnit.MILLISECONDS.toDays(diffInMs);
-        int hours = (int) (TimeUnit.MILLISECONDS.toHours(diffInMs) - TimeUnit.DAYS.toHours(days));
-        int minutes = (int) (TimeUnit.MILLISECONDS.toMinutes(diffInMs)
-                - TimeUnit.HOURS.toMinutes(TimeUnit.MILLISECONDS.toHours(diffInMs)));
-        int seconds = (int) TimeUnit.MILLISECONDS.toSeconds(diffInMs);
-        switch (timeUnits) {
-            case DAYS:
-                return Long.toString(days);
-            case SECONDS:
-                return Long.toString(seconds);
-            case MINUTES:
-                return Long.toString(minutes);
-            case HOURS:
-                return Long.toString(hours);
-            case MILLISECONDS:
-            default:
-                return Long.toString(diffInMs);
-        }
+        return Long.toString(getTimeDifference(timeOne.getTime(), timeTwo.getTime(), timeUnits));
     }
 
     /**
@@ -202,9 +291,9 @@ public class DateUtil {
         requireNonNull(timeTwo);
         requireNonNull(timeUnits);
         try {
-            Date firstDate = getDateFromString(timeOne);
-            Date secondDate = getDateFromString(timeTwo);
-            return getTimeDifference(secondDate, firstDate, timeUnits);
+            long firstDate = parseMillis(timeOne);
+            long secondDate = parseMillis(timeTwo);
+            return Long.toString(getTimeDifference(secondDate, firstDate, timeUnits));
         } catch (ParseException e) {
             Timber.e(e);
         }
@@ -212,24 +301,65 @@ public class DateUtil {
     }
 
     /**
-     * Call this function to check if the time has past the currentTime
+     * Get difference between 2 times, given as milliseconds since the epoch, in the time unit you
+     * need. Unlike the {@link Date} and {@link String} variants this method does not allocate, use
+     * it when comparing or bucketing a large number of times.<br/>
+     * <b>NOTE:</b> {@link DateTimeUnits#HOURS} and {@link DateTimeUnits#MINUTES} give the hours
+     * of the day and the minutes of the hour of the difference, as the {@link String} variants
+     * always did; the other units give the whole difference in that unit.
+     *
+     * @param timeOne   the first time in milliseconds since the epoch
+     * @param timeTwo   the second time in milliseconds since the epoch
+     * @param timeUnits the {@link DateTimeUnits} in which the difference is required
+     * @return Difference(timeOne - timeTwo) between the two times in the unit which was requested
+     */
+    public static long getTimeDifference(final long timeOne,
+                                         final long timeTwo,
+                                         @NonNull final DateTimeUnits timeUnits) {
+        return getTimeDifference(timeOne - timeTwo, timeUnits);
+    }
+
+    private static long getTimeDifference(final long diffInMs,
+                                          @NonNull final DateTimeUnits timeUnits) {
+        requireNonNull(timeUnits);
+        switch (timeUnits) {
+            case DAYS:
+                return TimeUnit.MILLISECONDS.toDays(diffInMs);
+            case SECONDS:
+                return TimeUnit.MILLISECONDS.toSeconds(diffInMs);
+            case MINUTES:
+                return TimeUnit.MILLISECONDS.toMinutes(diffInMs) % 60;
+            case HOURS:
+                return TimeUnit.MILLISECONDS.toHours(diffInMs) % 24;
+            case MILLISECONDS:
+            default:
+                return diffInMs;
+        }
+    }
+
+    /**
+     * Call this function to check if the time has past the currentTime. The time strings are
+     * parsed only once and remembered, so that this can be called for every item of a list on each
+     * bind.
      *
      * @param time the time you want to compare with the present
-     * @return true if the time has passed the currentTime
+     * @return true if at least a minute has passed since the time
      */
     public static boolean isTimePast(@NonNull final String time) {
         requireNonNull(time);
-        long diff = 0;
-        try {
-            diff = Long.parseLong(getTimeDifference(
-                    getDateFromString(getCurrentDateTimeAsString()),
-                    getDateFromString(time),
-                    MINUTES
-            ));
-        } catch (ParseException e) {
-            Timber.e(e);
+        DateFormatter current = getFormatter();
+        int slot = time.hashCode() & (PARSED_TIME_SLOTS - 1);
+        ParsedTime parsedTime = parsedTimes[slot];
+        if (parsedTime == null || parsedTime.formatter != current || !parsedTime.time.equals(time)) {
+            try {
+                parsedTime = parseTime(current, time);
+            } catch (ParseException e) {
+                Timber.e(e);
+                return false;
+            }
+            parsedTimes[slot] = parsedTime;
         }
-        return diff > 0;
+        return TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis() - parsedTime.millis) > 0;
     }
 
     /**
@@ -241,17 +371,127 @@ public class DateUtil {
     @Nullable
     public static Long getTimestampFromDate(@NonNull final String date) {
         requireNonNull(date);
-        Date thisDate;
         try {
-            thisDate = getDateFromString(date);
+            return parseMillis(date);
         } catch (ParseException e) {
             Timber.e(e);
             return null;
         }
-        return thisDate.getTime();
     }
 
-    enum DateTimeUnits {
+    /**
+     * Call this function to get the milliseconds since the epoch of a whole batch of date strings,
+     * like a page of records from an API. The formatter and buffers are looked up only once for
+     * the batch, the parse cache is not used.
+     *
+     * @param dates      the date strings, null entries are treated as invalid
+     * @param timestamps filled with the milliseconds since epoch of each date string at the same
+     *                   index, or {@link #INVALID_TIMESTAMP} if it could not be parsed
+     * @return the number of date strings that could not be parsed
+     */
+    public static int getTimestampsFromDates(@NonNull final List<String> dates,
+                                             @NonNull final long[] timestamps) {
+        checkBatch(dates.size(), timestamps.length);
+        return getFormatter().parseMillis(dates, 0, dates.size(), timestamps);
+    }
+
+    /**
+     * Call this function to get the milliseconds since the epoch of a whole batch of date strings.
+     *
+     * @param dates      the date strings, null entries are treated as invalid
+     * @param timestamps filled with the milliseconds since epoch of each date string at the same
+     *                   index, or {@link #INVALID_TIMESTAMP} if it could not be parsed
+     * @return the number of date strings that could not be parsed
+     * @see #getTimestampsFromDates(List, long[])
+     */
+    public static int getTimestampsFromDates(@NonNull final String[] dates,
+                                             @NonNull final long[] timestamps) {
+        return getTimestampsFromDates(Arrays.asList(dates), timestamps);
+    }
+
+    /**
+     * Same as {@link #getTimestampsFromDates(List, long[])}, but batches of a thousand
+     * or more date strings are split across the cores.
+     *
+     * @param dates      the date strings, null entries are treated as invalid
+     * @param timestamps filled with the milliseconds since epoch of each date string at the same
+     *                   index, or {@link #INVALID_TIMESTAMP} if it could not be parsed
+     * @return the number of date strings that could not be parsed
+     */
+    @RequiresApi(21)
+    public static int getTimestampsFromDatesInParallel(@NonNull final List<String> dates,
+                                                       @NonNull final long[] timestamps) {
+        checkBatch(dates.size(), timestamps.length);
+        final DateFormatter current = getFormatter();
+        return ParallelBatch.run(dates.size(), new ParallelBatch.RangeTask() {
+            @Override
+            public int run(int from, int to) {
+                return current.parseMillis(dates, from, to, timestamps);
+            }
+        });
+    }
+
+    /**
+     * Call this function to format a whole batch of times as date strings in the pattern set in
+     * {@link #datePattern}. The formatter and buffers are looked up only once for the batch.
+     *
+     * @param timestamps the milliseconds since epoch
+     * @param dates      filled with the date string of each time at the same index
+     */
+    public static void getDatesAsStrings(@NonNull final long[] timestamps,
+                                         @NonNull final String[] dates) {
+        checkBatch(timestamps.length, dates.length);
+        getFormatter().format(timestamps, 0, timestamps.length, dates);
+    }
+
+    /**
+     * Same as {@link #getDatesAsStrings(long[], String[])}, but batches of a thousand or
+     * more times are split across the cores.
+     *
+     * @param timestamps the milliseconds since epoch
+     * @param dates      filled with the date string of each time at the same index
+     */
+    @RequiresApi(21)
+    public static void getDatesAsStringsInParallel(@NonNull final long[] timestamps,
+                                                   @NonNull final String[] dates) {
+        checkBatch(timestamps.length, dates.length);
+        final DateFormatter current = getFormatter();
+        ParallelBatch.run(timestamps.length, new ParallelBatch.RangeTask() {
+            @Override
+            public int run(int from, int to) {
+                current.format(timestamps, from, to, dates);
+                return 0;
+            }
+        });
+    }
+
+    private static void checkBatch(final int inputSize, final int outputSize) {
+        if (outputSize < inputSize) {
+            throw new IllegalArgumentException("output holds " + outputSize
+                    + " items, but the input has " + inputSize);
+        }
+    }
+
+    /**
+     * A time string parsed by a formatter, its fields are final so that it can be read from the
+     * {@link #parsedTimes} without locking. Entries of a formatter other than the current one are
+     * never used.
+     */
+    private static final class ParsedTime {
+        private final DateFormatter formatter;
+        private final String time;
+        private final long millis;
+
+        private ParsedTime(@NonNull final DateFormatter formatter,
+                           @NonNull final String time,
+                           final long millis) {
+            this.formatter = formatter;
+            this.time = time;
+            this.millis = millis;
+        }
+    }
+
+    public enum DateTimeUnits {
         /**
          * Days
          */
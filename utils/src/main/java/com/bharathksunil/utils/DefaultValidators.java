@@ -0,0 +1,130 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Hand written validators for the default email and phone number rules of
+ * {@link ValidationUtil}. They accept exactly what the default regular expressions accept, in a
+ * single pass over the input without allocating or backtracking, so even long invalid inputs are
+ * rejected in linear time.
+ *
+ * @author Bharath
+ */
+final class DefaultValidators {
+
+    private static final int PHONE_NUMBER_LENGTH = 10;
+
+    private DefaultValidators() {
+    }
+
+    /**
+     * Validates the email against<br/>
+     * ^[_A-Za-z0-9-+]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9-]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$
+     *
+     * @param email the email
+     * @return true if the email is valid
+     */
+    static boolean isEmailValid(@NonNull final CharSequence email) {
+        int end = getEndIgnoringLineTerminator(email);
+        int i = 0;
+        // the local part, '+' is allowed only in its first label
+        boolean firstLabel = true;
+        int labelLength = 0;
+        for (; i < end; i++) {
+            char c = email.charAt(i);
+            if (c == '@' || c == '.') {
+                if (labelLength == 0) {
+                    return false;
+                }
+                if (c == '@') {
+                    break;
+                }
+                firstLabel = false;
+                labelLength = 0;
+            } else if (isAlphaNumeric(c) || c == '_' || c == '-' || (c == '+' && firstLabel)) {
+                labelLength++;
+            } else {
+                return false;
+            }
+        }
+        if (i == end) {
+            return false;
+        }
+        // the domain, '-' is allowed only in its first label and the last must be all letters
+        int labelCount = 1;
+        boolean hasHyphen = false;
+        boolean allLetters = true;
+        labelLength = 0;
+        for (i++; i < end; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                if (labelLength == 0 || (hasHyphen && labelCount > 1)) {
+                    return false;
+                }
+                labelCount++;
+                labelLength = 0;
+                hasHyphen = false;
+                allLetters = true;
+            } else if (isAlphaNumeric(c)) {
+                allLetters &= !isDigit(c);
+                labelLength++;
+            } else if (c == '-') {
+                hasHyphen = true;
+                allLetters = false;
+                labelLength++;
+            } else {
+                return false;
+            }
+        }
+        return labelCount > 1 && labelLength >= 2 && allLetters;
+    }
+
+    /**
+     * Validates the Indian mobile number against ^[6789]\\d{9}$
+     *
+     * @param phone the phone number
+     * @return true if the phone number is valid
+     */
+    static boolean isPhoneNumberValid(@NonNull final CharSequence phone) {
+        int end = getEndIgnoringLineTerminator(phone);
+        if (end != PHONE_NUMBER_LENGTH) {
+            return false;
+        }
+        char first = phone.charAt(0);
+        if (first < '6' || first > '9') {
+            return false;
+        }
+        for (int i = 1; i < end; i++) {
+            if (!isDigit(phone.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The '$' of a regular expression also matches before a line terminator at the end of the
+     * input, this gives the end of the input without that terminator.
+     */
+    static int getEndIgnoringLineTerminator(@NonNull final CharSequence text) {
+        int length = text.length();
+        if (length == 0) {
+            return 0;
+        }
+        char last = text.charAt(length - 1);
+        if (last == '\n') {
+            return length > 1 && text.charAt(length - 2) == '\r' ? length - 2 : length - 1;
+        } else if (last == '\r' || last == '\u0085' || last == '\u2028' || last == '\u2029') {
+            return length - 1;
+        }
+        return length;
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAlphaNumeric(final char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
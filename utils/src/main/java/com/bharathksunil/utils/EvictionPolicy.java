@@ -0,0 +1,20 @@
+package com.bharathksunil.utils;
+
+/**
+ * Which entry a full cache of the utils evicts to make room for a new one.
+ *
+ * @author Bharath
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public enum EvictionPolicy {
+    /**
+     * the entry that was looked up least recently, best when some entries are used far more often
+     * than the others
+     */
+    LEAST_RECENTLY_USED,
+    /**
+     * the entry that was added first, lookups do not reorder the entries so they are a little
+     * cheaper
+     */
+    FIRST_IN_FIRST_OUT
+}
@@ -0,0 +1,461 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.text.DateFormatSymbols;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A formatter and parser for the fixed width date patterns, like the default pattern of
+ * {@link DateUtil} "hh:mm:ss a, dd MMMM yyyy" or ISO-8601 "yyyy-MM-dd'T'HH:mm:ss.SSS", which
+ * works directly on the characters instead of going through {@link SimpleDateFormat}.<br/>
+ * Only the fields yyyy, MM, MMMM, dd, HH, hh, mm, ss, SSS and a are supported, {@link #compile}
+ * returns null for any other pattern. The parser only accepts the exact shape the formatter
+ * writes, anything else (lenient input, local times skipped or repeated by a timezone transition)
+ * is reported as {@link #FAILED} so that the caller can fall back to {@link SimpleDateFormat},
+ * which keeps the results identical to it. Instances are immutable and thread safe.
+ *
+ * @author Bharath
+ */
+final class FastDatePattern {
+
+    /**
+     * Returned by {@link #parse(CharSequence)} when the text could not be parsed on the fast path
+     */
+    static final long FAILED = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long MILLIS_PER_MINUTE = 60 * MILLIS_PER_SECOND;
+    private static final long MILLIS_PER_HOUR = 60 * MILLIS_PER_MINUTE;
+    private static final long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+    /**
+     * Years outside this range are left to {@link SimpleDateFormat}, which switches to the Julian
+     * calendar before 1582 and writes more digits after 9999.
+     */
+    private static final int MIN_YEAR = 1601;
+    private static final int MAX_YEAR = 9999;
+
+    private static final int YEAR = 0;
+    private static final int MONTH = 1;
+    private static final int MONTH_NAME = 2;
+    private static final int DAY = 3;
+    private static final int HOUR_OF_DAY = 4;
+    private static final int HOUR_OF_AM_PM = 5;
+    private static final int MINUTE = 6;
+    private static final int SECOND = 7;
+    private static final int MILLISECOND = 8;
+    private static final int AM_PM = 9;
+    private static final int LITERAL = 10;
+
+    private final int[] fields;
+    private final String[] literals;
+    private final String[] months;
+    private final String[] amPmStrings;
+    private final ZoneOffsetTable zone;
+
+    private FastDatePattern(@NonNull final int[] fields,
+                            @NonNull final String[] literals,
+                            @NonNull final Locale locale,
+                            @NonNull final ZoneOffsetTable zone) {
+        DateFormatSymbols symbols = DateFormatSymbols.getInstance(locale);
+        this.fields = fields;
+        this.literals = literals;
+        this.months = symbols.getMonths();
+        this.amPmStrings = symbols.getAmPmStrings();
+        this.zone = zone;
+    }
+
+    /**
+     * Compiles the pattern if it is supported. The result is verified against
+     * {@link SimpleDateFormat} for the locale, so locales with other digits or calendars are left
+     * to it.
+     *
+     * @param pattern  the date pattern
+     * @param locale   the locale for the month names and AM/PM markers
+     * @param zone     the offsets of the timezone
+     * @return the compiled pattern or null if it is not supported
+     */
+    @Nullable
+    static FastDatePattern compile(@NonNull final String pattern,
+                                   @NonNull final Locale locale,
+                                   @NonNull final ZoneOffsetTable zone) {
+        List<Integer> fields = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int length = pattern.length();
+        int i = 0;
+        while (i < length) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                int end = pattern.indexOf('\'', i + 1);
+                if (end < 0) {
+                    return null;
+                }
+                if (end == i + 1) {
+                    literal.append('\'');
+                } else {
+                    literal.append(pattern, i + 1, end);
+                }
+                i = end + 1;
+                continue;
+            }
+            if (!isLetter(c)) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            int count = 1;
+            while (i + count < length && pattern.charAt(i + count) == c) {
+                count++;
+            }
+            int field = toField(c, count);
+            if (field < 0) {
+                return null;
+            }
+            if (literal.length() > 0) {
+                fields.add(LITERAL);
+                literals.add(literal.toString());
+                literal.setLength(0);
+            }
+            fields.add(field);
+            literals.add(null);
+            i += count;
+        }
+        if (literal.length() > 0) {
+            fields.add(LITERAL);
+            literals.add(literal.toString());
+        }
+        // the 12 hour clock needs the marker and the 24 hour clock must not have one
+        if (fields.contains(HOUR_OF_AM_PM) != fields.contains(AM_PM)
+                || (fields.contains(HOUR_OF_DAY) && fields.contains(AM_PM))) {
+            return null;
+        }
+        int[] compiledFields = new int[fields.size()];
+        for (int f = 0; f < compiledFields.length; f++) {
+            compiledFields[f] = fields.get(f);
+        }
+        FastDatePattern compiled = new FastDatePattern(compiledFields,
+                literals.toArray(new String[0]), locale, zone);
+        return compiled.agreesWith(new SimpleDateFormat(pattern, locale)) ? compiled : null;
+    }
+
+    private static boolean isLetter(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static int toField(final char letter, final int count) {
+        switch (letter) {
+            case 'y':
+                return count == 4 ? YEAR : -1;
+            case 'M':
+                if (count == 2) {
+                    return MONTH;
+                }
+                return count == 4 ? MONTH_NAME : -1;
+            case 'd':
+                return count == 2 ? DAY : -1;
+            case 'H':
+                return count == 2 ? HOUR_OF_DAY : -1;
+            case 'h':
+                return count == 2 ? HOUR_OF_AM_PM : -1;
+            case 'm':
+                return count == 2 ? MINUTE : -1;
+            case 's':
+                return count == 2 ? SECOND : -1;
+            case 'S':
+                return count == 3 ? MILLISECOND : -1;
+            case 'a':
+                return count == 1 ? AM_PM : -1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Checks the output of this pattern with the {@link SimpleDateFormat} for a date in each month,
+     * both before and after noon.
+     */
+    private boolean agreesWith(@NonNull final SimpleDateFormat format) {
+        format.setTimeZone(zone.getTimeZone());
+        StringBuilder buffer = new StringBuilder();
+        for (int month = 1; month <= 12; month++) {
+            for (int hour = 0; hour < 24; hour += 13) {
+                long millis = daysFromCivil(2018, month, month + 10) * MILLIS_PER_DAY
+                        + hour * MILLIS_PER_HOUR + 754_123L;
+                buffer.setLength(0);
+                if (!format(millis, buffer)) {
+                    continue;
+                }
+                String expected = format.format(millis);
+                try {
+                    long parsed = parse(expected);
+                    if (!expected.contentEquals(buffer)
+                            || (parsed != FAILED && format.parse(expected).getTime() != parsed)) {
+                        return false;
+                    }
+                } catch (ParseException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Formats the time and appends it to the buffer.
+     *
+     * @param millis the milliseconds since epoch
+     * @param buffer the buffer to append the formatted date to
+     * @return false, leaving the buffer untouched, if the year is not supported
+     */
+    boolean format(final long millis, @NonNull final StringBuilder buffer) {
+        long local = millis + zone.getOffset(millis);
+        long days = floorDiv(local, MILLIS_PER_DAY);
+        int millisOfDay = (int) (local - days * MILLIS_PER_DAY);
+        // civil from days, see http://howardhinnant.github.io/date_algorithms.html
+        long z = days + 719468;
+        long era = floorDiv(z, 146097);
+        int dayOfEra = (int) (z - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            return false;
+        }
+        int hour = millisOfDay / (int) MILLIS_PER_HOUR;
+        for (int f = 0; f < fields.length; f++) {
+            switch (fields[f]) {
+                case YEAR:
+                    appendDigits(buffer, (int) year, 4);
+                    break;
+                case MONTH:
+                    appendDigits(buffer, month, 2);
+                    break;
+                case MONTH_NAME:
+                    buffer.append(months[month - 1]);
+                    break;
+                case DAY:
+                    appendDigits(buffer, day, 2);
+                    break;
+                case HOUR_OF_DAY:
+                    appendDigits(buffer, hour, 2);
+                    break;
+                case HOUR_OF_AM_PM:
+                    appendDigits(buffer, hour % 12 == 0 ? 12 : hour % 12, 2);
+                    break;
+                case MINUTE:
+                    appendDigits(buffer, millisOfDay / (int) MILLIS_PER_MINUTE % 60, 2);
+                    break;
+                case SECOND:
+                    appendDigits(buffer, millisOfDay / (int) MILLIS_PER_SECOND % 60, 2);
+                    break;
+                case MILLISECOND:
+                    appendDigits(buffer, millisOfDay % (int) MILLIS_PER_SECOND, 3);
+                    break;
+                case AM_PM:
+                    buffer.append(amPmStrings[hour < 12 ? 0 : 1]);
+                    break;
+                case LITERAL:
+                default:
+                    buffer.append(literals[f]);
+                    break;
+            }
+        }
+        return true;
+    }
+
+    private static long floorDiv(final long dividend, final long divisor) {
+        long quotient = dividend / divisor;
+        return (dividend % divisor != 0 && (dividend ^ divisor) < 0) ? quotient - 1 : quotient;
+    }
+
+    private static void appendDigits(@NonNull final StringBuilder buffer,
+                                     final int value,
+                                     final int width) {
+        for (int divisor = width == 4 ? 1000 : width == 3 ? 100 : 10; divisor > 0; divisor /= 10) {
+            buffer.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * Parses the text, which must be in exactly the shape written by
+     * {@link #format(long, StringBuilder)}.
+     *
+     * @param text the date text
+     * @return the milliseconds since epoch or {@link #FAILED}
+     */
+    long parse(@NonNull final CharSequence text) {
+        int length = text.length();
+        int position = 0;
+        int year = -1;
+        int month = -1;
+        int day = -1;
+        int hour = 0;
+        int hourOfAmPm = -1;
+        int amPm = -1;
+        int minute = 0;
+        int second = 0;
+        int millisecond = 0;
+        for (int f = 0; f < fields.length; f++) {
+            int field = fields[f];
+            if (field == LITERAL) {
+                String literal = literals[f];
+                int end = position + literal.length();
+                if (end > length) {
+                    return FAILED;
+                }
+                for (int i = 0; i < literal.length(); i++) {
+                    if (text.charAt(position + i) != literal.charAt(i)) {
+                        return FAILED;
+                    }
+                }
+                position = end;
+                continue;
+            }
+            if (field == MONTH_NAME || field == AM_PM) {
+                String[] names = field == MONTH_NAME ? months : amPmStrings;
+                int match = matchName(text, position, names);
+                if (match < 0) {
+                    return FAILED;
+                }
+                if (field == MONTH_NAME) {
+                    month = match + 1;
+                } else {
+                    amPm = match;
+                }
+                position += names[match].length();
+                continue;
+            }
+            int width = field == YEAR ? 4 : field == MILLISECOND ? 3 : 2;
+            int value = parseDigits(text, position, width);
+            if (value < 0) {
+                return FAILED;
+            }
+            position += width;
+            switch (field) {
+                case YEAR:
+                    year = value;
+                    break;
+                case MONTH:
+                    month = value;
+                    break;
+                case DAY:
+                    day = value;
+                    break;
+                case HOUR_OF_DAY:
+                    hour = value;
+                    break;
+                case HOUR_OF_AM_PM:
+                    hourOfAmPm = value;
+                    break;
+                case MINUTE:
+                    minute = value;
+                    break;
+                case SECOND:
+                    second = value;
+                    break;
+                case MILLISECOND:
+                default:
+                    millisecond = value;
+                    break;
+            }
+        }
+        if (position != length || year < MIN_YEAR || month < 1 || month > 12
+                || day < 1 || day > daysInMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            return FAILED;
+        }
+        if (hourOfAmPm >= 0) {
+            if (hourOfAmPm < 1 || hourOfAmPm > 12 || amPm < 0) {
+                return FAILED;
+            }
+            hour = hourOfAmPm % 12 + amPm * 12;
+        }
+        long local = daysFromCivil(year, month, day) * MILLIS_PER_DAY + hour * MILLIS_PER_HOUR
+                + minute * MILLIS_PER_MINUTE + second * MILLIS_PER_SECOND + millisecond;
+        long utc = zone.toUtc(local);
+        return utc == ZoneOffsetTable.AMBIGUOUS ? FAILED : utc;
+    }
+
+    /**
+     * Finds the longest of the names matching the text at the position ignoring the case, the same
+     * way {@link SimpleDateFormat} matches them.
+     */
+    private static int matchName(@NonNull final CharSequence text,
+                                 final int position,
+                                 @NonNull final String[] names) {
+        int best = -1;
+        int bestLength = 0;
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            int nameLength = name.length();
+            if (nameLength > bestLength && position + nameLength <= text.length()
+                    && regionMatches(text, position, name)) {
+                best = i;
+                bestLength = nameLength;
+            }
+        }
+        return best;
+    }
+
+    private static boolean regionMatches(@NonNull final CharSequence text,
+                                         final int position,
+                                         @NonNull final String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char expected = name.charAt(i);
+            char actual = text.charAt(position + i);
+            if (expected != actual
+                    && Character.toUpperCase(expected) != Character.toUpperCase(actual)
+                    && Character.toLowerCase(expected) != Character.toLowerCase(actual)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int parseDigits(@NonNull final CharSequence text,
+                                   final int position,
+                                   final int width) {
+        if (position + width > text.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = position; i < position + width; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int daysInMonth(final int year, final int month) {
+        if (month == 2) {
+            boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * Days since the epoch of the date in the proleptic Gregorian calendar, see
+     * http://howardhinnant.github.io/date_algorithms.html
+     */
+    private static long daysFromCivil(final int year, final int month, final int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+}
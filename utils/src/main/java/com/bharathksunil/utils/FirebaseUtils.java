@@ -1,6 +1,14 @@
 package com.bharathksunil.utils;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RequiresApi;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import static java.util.Objects.requireNonNull;
 
@@ -14,21 +22,142 @@ import static java.util.Objects.requireNonNull;
 public class FirebaseUtils {
 
     private static final String DOT_REPLACEMENT = "_dot_";
+    private static final char ESCAPE = '%';
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    /**
+     * The ASCII characters that are escaped by {@link #escapeKey(String)}: the ones not allowed in
+     * a Real-time database key, the control characters and the escape character itself
+     */
+    private static final boolean[] ESCAPED = new boolean[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPED[c] = true;
+        }
+        ESCAPED[0x7F] = true;
+        for (char c : "%.$#[]/".toCharArray()) {
+            ESCAPED[c] = true;
+        }
+    }
+
+    /**
+     * The cache of the email and key conversions, null when not enabled
+     */
+    @Nullable
+    private static volatile KeyCache keyCache;
 
     private FirebaseUtils() {
     }
 
+    /**
+     * Call this method to remember the conversions of {@link #getEmailAsFirebaseKey(String)} and
+     * {@link #getEmailFromFirebaseKey(String)}, useful when the same emails are converted again
+     * and again, like for presence, chats and permissions. Repeated conversions then return the
+     * same string instances, without any work or garbage. A conversion in one direction also
+     * remembers the reverse one when it gives back the same string.<br/>
+     * Each direction holds up to the given number of entries, each taking about 100 bytes along
+     * with the strings. Calling this again replaces the cache with an empty one.
+     *
+     * @param maxEntries the maximum number of conversions to remember in each direction
+     * @param eviction   the conversion forgotten when the cache is full
+     */
+    public static void enableKeyCache(final int maxEntries, @NonNull final EvictionPolicy eviction) {
+        keyCache = new KeyCache(maxEntries, eviction);
+    }
+
+    /**
+     * Call this method to remember the conversions with the least recently used evicted first,
+     * see {@link #enableKeyCache(int, EvictionPolicy)}
+     *
+     * @param maxEntries the maximum number of conversions to remember in each direction
+     */
+    public static void enableKeyCache(final int maxEntries) {
+        enableKeyCache(maxEntries, EvictionPolicy.LEAST_RECENTLY_USED);
+    }
+
+    /**
+     * Call this method to stop caching the conversions and release the cache.
+     */
+    public static void disableKeyCache() {
+        keyCache = null;
+    }
+
+    /**
+     * Call this method to get the hit, miss and eviction counts of the key cache, of both
+     * directions together.
+     *
+     * @return the stats of the cache or null if the cache is not enabled.
+     * @see #enableKeyCache(int, EvictionPolicy)
+     */
+    @Nullable
+    public static CacheStats getKeyCacheStats() {
+        KeyCache cache = keyCache;
+        return cache == null ? null : cache.getStats();
+    }
+
     /**
      * Call this function to convert the email as a key in the Real-time database. It stores the
      * email by replacing the '.'(dot) with the {@link #DOT_REPLACEMENT} token instead.
      *
      * @param email the email address
-     * @return the key safe of the email address
+     * @return the key safe of the email address, the email itself if nothing had to be replaced
      */
     public static String getEmailAsFirebaseKey(@NonNull String email) {
         requireNonNull(email);
-        email = email.toLowerCase();
-        return email.replaceAll("\\.", DOT_REPLACEMENT);
+        KeyCache cache = keyCache;
+        return cache == null ? toFirebaseKey(email) : cache.toKey(email);
+    }
+
+    @NonNull
+    private static String toFirebaseKey(@NonNull final String email) {
+        int length = email.length();
+        int i = 0;
+        while (i < length && !needsEncoding(email.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return email;
+        }
+        return appendEmailAsFirebaseKey(email, new StringBuilder(length + 16)).toString();
+    }
+
+    /**
+     * Call this function to convert the email as a key in the Real-time database, like
+     * {@link #getEmailAsFirebaseKey(String)}, into a buffer that can be reused for many keys.
+     *
+     * @param email the email address
+     * @param key   the buffer the key is appended to
+     * @return the buffer
+     */
+    @NonNull
+    public static StringBuilder appendEmailAsFirebaseKey(@NonNull final CharSequence email,
+                                                         @NonNull final StringBuilder key) {
+        requireNonNull(email);
+        requireNonNull(key);
+        int start = key.length();
+        if (isAsciiLowerCaseSafe()) {
+            int length = email.length();
+            int i = 0;
+            for (; i < length; i++) {
+                char c = email.charAt(i);
+                if (c == '.') {
+                    key.append(DOT_REPLACEMENT);
+                } else if (c >= 'A' && c <= 'Z') {
+                    key.append((char) (c + ('a' - 'A')));
+                } else if (c < 128) {
+                    key.append(c);
+                } else {
+                    break;
+                }
+            }
+            if (i == length) {
+                return key;
+            }
+            key.setLength(start);
+        }
+        // non ASCII characters can change their length when lower cased, leave them to String
+        appendReplacing(email.toString().toLowerCase(), ".", DOT_REPLACEMENT, key);
+        return key;
     }
 
     /**
@@ -37,11 +166,412 @@ public class FirebaseUtils {
      * method reverses the action in the {@link #getEmailAsFirebaseKey(String)}.
      *
      * @param key the email which was stored as a key
-     * @return the regular email ID
+     * @return the regular email ID, the key itself if nothing had to be replaced
      */
     public static String getEmailFromFirebaseKey(@NonNull String key) {
         requireNonNull(key);
-        return key.replaceAll(DOT_REPLACEMENT, "\\.").toLowerCase();
+        KeyCache cache = keyCache;
+        return cache == null ? toEmail(key) : cache.toEmail(key);
+    }
+
+    @NonNull
+    private static String toEmail(@NonNull final String key) {
+        int length = key.length();
+        int i = 0;
+        while (i < length && !needsDecoding(key.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return key;
+        }
+        return appendEmailFromFirebaseKey(key, new StringBuilder(length)).toString();
+    }
+
+    /**
+     * Call this function to convert the firebase key back to a regular email, like
+     * {@link #getEmailFromFirebaseKey(String)}, into a buffer that can be reused for many keys.
+     *
+     * @param key   the email which was stored as a key
+     * @param email the buffer the email is appended to
+     * @return the buffer
+     */
+    @NonNull
+    public static StringBuilder appendEmailFromFirebaseKey(@NonNull final CharSequence key,
+                                                           @NonNull final StringBuilder email) {
+        requireNonNull(key);
+        requireNonNull(email);
+        int start = email.length();
+        if (isAsciiLowerCaseSafe()) {
+            int length = key.length();
+            int i = 0;
+            while (i < length) {
+                char c = key.charAt(i);
+                if (c == '_' && regionMatches(key, i, DOT_REPLACEMENT)) {
+                    email.append('.');
+                    i += DOT_REPLACEMENT.length();
+                    continue;
+                } else if (c >= 'A' && c <= 'Z') {
+                    email.append((char) (c + ('a' - 'A')));
+                } else if (c < 128) {
+                    email.append(c);
+                } else {
+                    break;
+                }
+                i++;
+            }
+            if (i == length) {
+                return email;
+            }
+            email.setLength(start);
+        }
+        StringBuilder replaced = new StringBuilder(key.length());
+        appendReplacing(key, DOT_REPLACEMENT, ".", replaced);
+        email.append(replaced.toString().toLowerCase());
+        return email;
+    }
+
+    /**
+     * Call this function to use any string as a key in the Real-time database. The characters not
+     * allowed in a key: . $ # [ ] / and the control characters, are escaped as '%' followed by two
+     * hex digits, as is '%' itself, so that every string has a distinct key and
+     * {@link #unescapeKey(String)} restores it exactly, case included.
+     *
+     * @param text the string
+     * @return the key of the string, the string itself if nothing had to be escaped
+     */
+    @NonNull
+    public static String escapeKey(@NonNull final String text) {
+        requireNonNull(text);
+        int length = text.length();
+        int i = 0;
+        while (i < length && !isEscaped(text.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return text;
+        }
+        StringBuilder key = new StringBuilder(length + 16);
+        key.append(text, 0, i);
+        appendEscaped(text, i, key);
+        return key.toString();
+    }
+
+    /**
+     * Call this function to escape a string as a key, like {@link #escapeKey(String)}, into a
+     * buffer that can be reused for many keys.
+     *
+     * @param text the string
+     * @param key  the buffer the key is appended to
+     * @return the buffer
+     */
+    @NonNull
+    public static StringBuilder appendEscapedKey(@NonNull final CharSequence text,
+                                                 @NonNull final StringBuilder key) {
+        requireNonNull(text);
+        requireNonNull(key);
+        appendEscaped(text, 0, key);
+        return key;
+    }
+
+    /**
+     * Call this function to get back the string of a key made by {@link #escapeKey(String)}
+     *
+     * @param key the key
+     * @return the string, the key itself if nothing had to be unescaped
+     * @throws IllegalArgumentException if the key has a '%' not followed by two hex digits
+     */
+    @NonNull
+    public static String unescapeKey(@NonNull final String key) {
+        requireNonNull(key);
+        int i = key.indexOf(ESCAPE);
+        if (i < 0) {
+            return key;
+        }
+        StringBuilder text = new StringBuilder(key.length());
+        text.append(key, 0, i);
+        appendUnescaped(key, i, text);
+        return text.toString();
+    }
+
+    /**
+     * Call this function to unescape a key, like {@link #unescapeKey(String)}, into a buffer that
+     * can be reused for many keys.
+     *
+     * @param key  the key
+     * @param text the buffer the string is appended to
+     * @return the buffer
+     * @throws IllegalArgumentException if the key has a '%' not followed by two hex digits
+     */
+    @NonNull
+    public static StringBuilder appendUnescapedKey(@NonNull final CharSequence key,
+                                                   @NonNull final StringBuilder text) {
+        requireNonNull(key);
+        requireNonNull(text);
+        appendUnescaped(key, 0, text);
+        return text;
     }
 
-}
\ No newline at end of file
+    private static boolean isEscaped(final char c) {
+        return c < 128 && ESCAPED[c];
+    }
+
+    private static void appendEscaped(@NonNull final CharSequence text,
+                                      final int from,
+                                      @NonNull final StringBuilder key) {
+        int length = text.length();
+        for (int i = from; i < length; i++) {
+            char c = text.charAt(i);
+            if (isEscaped(c)) {
+                key.append(ESCAPE).append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+            } else {
+                key.append(c);
+            }
+        }
+    }
+
+    private static void appendUnescaped(@NonNull final CharSequence key,
+                                        final int from,
+                                        @NonNull final StringBuilder text) {
+        int length = key.length();
+        int i = from;
+        while (i < length) {
+            char c = key.charAt(i);
+            if (c != ESCAPE) {
+                text.append(c);
+                i++;
+                continue;
+            }
+            int high = i + 1 < length ? hexDigit(key.charAt(i + 1)) : -1;
+            int low = i + 2 < length ? hexDigit(key.charAt(i + 2)) : -1;
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("Invalid escape at " + i + " in the key: " + key);
+            }
+            text.append((char) (high << 4 | low));
+            i += 3;
+        }
+    }
+
+    /**
+     * Unlike {@link Character#digit(char, int)}, this accepts only the ASCII hex digits, not the
+     * full width or other Unicode digits
+     *
+     * @return the value of the hex digit, -1 if the character is not one of [0-9A-Fa-f]
+     */
+    static int hexDigit(final char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * Call this function to convert a whole batch of keys, like the children of a large snapshot.
+     * A single buffer is used for the batch and only the keys that change are copied.
+     *
+     * @param keys      the keys, null keys give null results
+     * @param transform the conversion
+     * @param dedupe    true to convert each distinct key only once and return the same result
+     *                  instance for its repeats, for batches with many repeated keys
+     * @param results   filled with the result of each key at the same index
+     */
+    public static void transcodeKeys(@NonNull final List<String> keys,
+                                     @NonNull final KeyTransform transform,
+                                     final boolean dedupe,
+                                     @NonNull final String[] results) {
+        checkBatch(keys, transform, results);
+        new KeyTranscoder(transform, dedupe).transcode(keys, 0, keys.size(), results);
+    }
+
+    /**
+     * Call this function to convert a whole batch of keys, see
+     * {@link #transcodeKeys(List, KeyTransform, boolean, String[])}
+     *
+     * @param keys      the keys, null keys give null results
+     * @param transform the conversion
+     * @param dedupe    true to convert each distinct key only once
+     * @param results   filled with the result of each key at the same index, it can be the keys
+     *                  array itself
+     */
+    public static void transcodeKeys(@NonNull final String[] keys,
+                                     @NonNull final KeyTransform transform,
+                                     final boolean dedupe,
+                                     @NonNull final String[] results) {
+        transcodeKeys(Arrays.asList(keys), transform, dedupe, results);
+    }
+
+    /**
+     * Call this function to convert a whole batch of keys, split across the cores when the batch
+     * is large. Deduplication is done within each part of the batch.
+     *
+     * @param keys      the keys, null keys give null results
+     * @param transform the conversion
+     * @param dedupe    true to convert each distinct key only once per part of the batch
+     * @param results   filled with the result of each key at the same index
+     */
+    @RequiresApi(21)
+    public static void transcodeKeysInParallel(@NonNull final List<String> keys,
+                                               @NonNull final KeyTransform transform,
+                                               final boolean dedupe,
+                                               @NonNull final String[] results) {
+        checkBatch(keys, transform, results);
+        final KeyTranscoder transcoder = new KeyTranscoder(transform, dedupe);
+        ParallelBatch.run(keys.size(), new ParallelBatch.RangeTask() {
+            @Override
+            public int run(int from, int to) {
+                transcoder.transcode(keys, from, to, results);
+                return 0;
+            }
+        });
+    }
+
+    /**
+     * Call this function to convert the keys of a map, like the children of a snapshot, keeping
+     * their order. A single buffer is used for the map.
+     *
+     * @param map       the map whose keys are to be converted
+     * @param transform the conversion
+     * @return a new map with the converted keys and the same values
+     * @throws IllegalArgumentException if two keys convert to the same key, as
+     *                                  {@link KeyTransform#EMAIL_TO_KEY} does for emails that
+     *                                  differ only in case
+     */
+    @NonNull
+    public static <V> Map<String, V> transcodeKeys(@NonNull final Map<String, ? extends V> map,
+                                                   @NonNull final KeyTransform transform) {
+        requireNonNull(map);
+        requireNonNull(transform);
+        KeyTranscoder transcoder = new KeyTranscoder(transform, false);
+        StringBuilder buffer = new StringBuilder(64);
+        Map<String, V> result = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+        for (Map.Entry<String, ? extends V> entry : map.entrySet()) {
+            String key = transcoder.transcode(entry.getKey(), buffer);
+            if (result.containsKey(key)) {
+                throw new IllegalArgumentException("More than one key converts to: " + key);
+            }
+            result.put(key, entry.getValue());
+        }
+        return result;
+    }
+
+    private static void checkBatch(@NonNull final List<String> keys,
+                                   @NonNull final KeyTransform transform,
+                                   @NonNull final String[] results) {
+        requireNonNull(keys);
+        requireNonNull(transform);
+        if (results.length < keys.size()) {
+            throw new IllegalArgumentException("results holds " + results.length
+                    + " items, but there are " + keys.size() + " keys");
+        }
+    }
+
+    private static boolean needsEncoding(final char c) {
+        return c == '.' || (c >= 'A' && c <= 'Z') || c >= 128;
+    }
+
+    private static boolean needsDecoding(final char c) {
+        return c == '_' || (c >= 'A' && c <= 'Z') || c >= 128;
+    }
+
+    /**
+     * @return true if lower casing ASCII letters one by one gives the same result as
+     * {@link String#toLowerCase()}, which is not the case for the dotted and dotless i of the
+     * Turkic languages and the accented i of Lithuanian
+     */
+    private static boolean isAsciiLowerCaseSafe() {
+        String language = Locale.getDefault().getLanguage();
+        return !"tr".equals(language) && !"az".equals(language) && !"lt".equals(language);
+    }
+
+    private static boolean regionMatches(@NonNull final CharSequence text,
+                                         final int offset,
+                                         @NonNull final String token) {
+        int length = token.length();
+        if (offset + length > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(offset + i) != token.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void appendReplacing(@NonNull final CharSequence text,
+                                        @NonNull final String target,
+                                        @NonNull final String replacement,
+                                        @NonNull final StringBuilder out) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (regionMatches(text, i, target)) {
+                out.append(replacement);
+                i += target.length();
+            } else {
+                out.append(text.charAt(i++));
+            }
+        }
+    }
+
+    /**
+     * The conversions in both directions, emptied whenever the default locale changes as the
+     * emails and keys are lower cased as per it
+     */
+    private static final class KeyCache {
+        private final BoundedCache<String, String> keys;
+        private final BoundedCache<String, String> emails;
+        @Nullable
+        private volatile Locale locale;
+
+        private KeyCache(final int maxEntries, @NonNull final EvictionPolicy eviction) {
+            this.keys = new BoundedCache<>(maxEntries, eviction);
+            this.emails = new BoundedCache<>(maxEntries, eviction);
+        }
+
+        private void checkLocale() {
+            Locale current = Locale.getDefault();
+            if (current != locale) {
+                keys.clear();
+                emails.clear();
+                locale = current;
+            }
+        }
+
+        @NonNull
+        private String toKey(@NonNull final String email) {
+            checkLocale();
+            String key = keys.get(email);
+            if (key == null) {
+                key = toFirebaseKey(email);
+                keys.put(email, key);
+                if (email.equals(FirebaseUtils.toEmail(key))) {
+                    emails.put(key, email);
+                }
+            }
+            return key;
+        }
+
+        @NonNull
+        private String toEmail(@NonNull final String key) {
+            checkLocale();
+            String email = emails.get(key);
+            if (email == null) {
+                email = FirebaseUtils.toEmail(key);
+                emails.put(key, email);
+                if (key.equals(toFirebaseKey(email))) {
+                    keys.put(email, key);
+                }
+            }
+            return email;
+        }
+
+        @NonNull
+        private CacheStats getStats() {
+            return keys.getStats().plus(emails.getStats());
+        }
+    }
+}
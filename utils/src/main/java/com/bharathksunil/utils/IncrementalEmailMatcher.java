@@ -0,0 +1,178 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Matches a text being edited against the default email rule of {@link ValidationUtil}, the one of
+ * {@link DefaultValidators#isEmailValid(CharSequence)}, without scanning the whole text after each
+ * edit. The rule is run as an automaton and its state after each character of the text is kept,
+ * so an edit only runs it over the inserted characters and then over the characters after them
+ * until it reaches the state it had before the edit, from where nothing changes. Typing or
+ * deleting in a label costs O(1), only an edit which changes the structure of the email, like
+ * adding the '@' or the first '.' of the local part, runs up to the next '@' or to the end.
+ * <br/>
+ * The states are kept in a gap buffer at the last edit, as the edits of a text field are at its
+ * cursor.
+ *
+ * @author Bharath
+ */
+final class IncrementalEmailMatcher {
+
+    // the states of the automaton, REJECT is final
+    private static final byte REJECT = 0;
+    // the local part, '+' is allowed only in its first label
+    private static final byte LOCAL_START = 1;
+    private static final byte LOCAL_FIRST_LABEL = 2;
+    private static final byte LOCAL_LABEL_START = 3;
+    private static final byte LOCAL_LABEL = 4;
+    // the domain, '-' is allowed only in its first label and the last must be all letters
+    private static final byte DOMAIN_START = 5;
+    private static final byte DOMAIN_FIRST_LABEL = 6;
+    private static final byte DOMAIN_LABEL_START = 7;
+    private static final byte DOMAIN_ONE_LETTER = 8;
+    private static final byte DOMAIN_LETTERS = 9;
+    private static final byte DOMAIN_ALPHANUMERIC = 10;
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    /**
+     * The state after each prefix of the text, the one of the first i characters at the index i,
+     * with a gap between the indexes gapStart and gapEnd
+     */
+    private byte[] states = new byte[INITIAL_CAPACITY];
+    private int gapStart;
+    private int gapEnd;
+
+    IncrementalEmailMatcher() {
+        reset("");
+    }
+
+    /**
+     * Runs the automaton over the whole text
+     */
+    void reset(@NonNull final CharSequence text) {
+        int length = text.length();
+        if (states.length < length + 1) {
+            states = new byte[Math.max(length + 1, states.length * 2)];
+        }
+        byte state = LOCAL_START;
+        states[0] = state;
+        for (int i = 0; i < length; i++) {
+            state = next(state, text.charAt(i));
+            states[i + 1] = state;
+        }
+        gapStart = length + 1;
+        gapEnd = states.length;
+    }
+
+    /**
+     * Updates the states after an edit which replaced the characters from start
+     *
+     * @param text     the text after the edit
+     * @param start    the index of the first replaced character
+     * @param removed  the number of characters removed
+     * @param inserted the number of characters inserted in their place
+     */
+    void replace(@NonNull final CharSequence text, final int start, final int removed,
+                 final int inserted) {
+        moveGap(start + 1);
+        gapEnd += removed;
+        ensureGap(inserted);
+        byte state = states[start];
+        for (int i = start; i < start + inserted; i++) {
+            state = next(state, text.charAt(i));
+            states[gapStart++] = state;
+        }
+        int length = text.length();
+        for (int i = start + inserted, index = gapEnd; i < length; i++, index++) {
+            state = next(state, text.charAt(i));
+            if (states[index] == state) {
+                // the rest of the text is read from the same state as before the edit
+                break;
+            }
+            states[index] = state;
+        }
+    }
+
+    /**
+     * @param text the text as of the last edit
+     * @return true if the text is a valid email
+     */
+    boolean isEmailValid(@NonNull final CharSequence text) {
+        return get(DefaultValidators.getEndIgnoringLineTerminator(text)) == DOMAIN_LETTERS;
+    }
+
+    private byte get(final int index) {
+        return index < gapStart ? states[index] : states[index - gapStart + gapEnd];
+    }
+
+    private void moveGap(final int index) {
+        if (index < gapStart) {
+            int count = gapStart - index;
+            System.arraycopy(states, index, states, gapEnd - count, count);
+            gapStart = index;
+            gapEnd -= count;
+        } else if (index > gapStart) {
+            int count = index - gapStart;
+            System.arraycopy(states, gapEnd, states, gapStart, count);
+            gapStart = index;
+            gapEnd += count;
+        }
+    }
+
+    private void ensureGap(final int count) {
+        if (gapEnd - gapStart >= count) {
+            return;
+        }
+        int tail = states.length - gapEnd;
+        byte[] grown = new byte[Math.max(states.length * 2, gapStart + count + tail)];
+        System.arraycopy(states, 0, grown, 0, gapStart);
+        System.arraycopy(states, gapEnd, grown, grown.length - tail, tail);
+        states = grown;
+        gapEnd = grown.length - tail;
+    }
+
+    private static byte next(final byte state, final char c) {
+        boolean digit = c >= '0' && c <= '9';
+        boolean letter = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+        switch (state) {
+            case LOCAL_START:
+            case LOCAL_FIRST_LABEL:
+                if (digit || letter || c == '_' || c == '-' || c == '+') {
+                    return LOCAL_FIRST_LABEL;
+                }
+                return state == LOCAL_START ? REJECT : endOfLocalLabel(c);
+            case LOCAL_LABEL_START:
+            case LOCAL_LABEL:
+                if (digit || letter || c == '_' || c == '-') {
+                    return LOCAL_LABEL;
+                }
+                return state == LOCAL_LABEL_START ? REJECT : endOfLocalLabel(c);
+            case DOMAIN_START:
+            case DOMAIN_FIRST_LABEL:
+                if (digit || letter || c == '-') {
+                    return DOMAIN_FIRST_LABEL;
+                }
+                return state == DOMAIN_FIRST_LABEL && c == '.' ? DOMAIN_LABEL_START : REJECT;
+            case DOMAIN_LABEL_START:
+                return letter ? DOMAIN_ONE_LETTER : digit ? DOMAIN_ALPHANUMERIC : REJECT;
+            case DOMAIN_ONE_LETTER:
+            case DOMAIN_LETTERS:
+                if (letter) {
+                    return DOMAIN_LETTERS;
+                }
+                return digit ? DOMAIN_ALPHANUMERIC : c == '.' ? DOMAIN_LABEL_START : REJECT;
+            case DOMAIN_ALPHANUMERIC:
+                if (digit || letter) {
+                    return DOMAIN_ALPHANUMERIC;
+                }
+                return c == '.' ? DOMAIN_LABEL_START : REJECT;
+            default:
+                return REJECT;
+        }
+    }
+
+    private static byte endOfLocalLabel(final char c) {
+        return c == '.' ? LOCAL_LABEL_START : c == '@' ? DOMAIN_START : REJECT;
+    }
+}
@@ -0,0 +1,227 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.Editable;
+import android.text.TextWatcher;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link TextWatcher} which keeps counters of the characters of the text as it is edited, so
+ * that the password can be checked against a {@link PasswordPolicy} in O(1) after each edit
+ * instead of scanning the whole text again. Each edit costs only the number of characters
+ * inserted or removed, which matters for long passphrases and pasted text.
+ * <br/>
+ * <b>How to use:</b>
+ * <pre>
+ * IncrementalTextValidator validator = new IncrementalTextValidator();
+ * validator.setCallback(v -&gt; passwordLayout.setError(v.isPasswordStrong() ? null : hint));
+ * passwordEditText.addTextChangedListener(validator);
+ * </pre>
+ * The email is tracked as it is edited too, by {@link IncrementalEmailMatcher}, so that it is
+ * checked against the default email rule without scanning the text again: an edit costs the
+ * characters inserted and the few after them that it affects, only an edit which changes the
+ * structure of the email, like adding its '@', costs up to the rest of the text. When the email
+ * rule is a regular expression it is matched against the whole text, as a regular expression
+ * cannot be resumed after an edit.
+ * <br/>
+ * The password policy and the email rule are those in use by {@link ValidationUtil} when the
+ * validator is created, changing its config later does not change them.
+ *
+ * @author Bharath
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class IncrementalTextValidator implements TextWatcher {
+
+    /**
+     * Called after each edit, once the counters are up to date
+     */
+    public interface Callback {
+        void onTextValidated(@NonNull IncrementalTextValidator validator);
+    }
+
+    private static final int RULE_COUNT = PasswordRule.values().length;
+
+    private final PasswordPolicy policy;
+    /**
+     * The number of characters of the text in each {@link PasswordRule#classify(char)} class
+     */
+    private final int[] classCounts = new int[RULE_COUNT];
+    private int length;
+    /**
+     * The email regular expression, null if the default rule is tracked by emailMatcher
+     */
+    @Nullable
+    private final Pattern emailRegex;
+    @Nullable
+    private final IncrementalEmailMatcher emailMatcher;
+    @NonNull
+    private CharSequence text = "";
+    @Nullable
+    private Callback callback;
+
+    /**
+     * Creates a validator for the password policy and the email rule in use by
+     * {@link ValidationUtil}
+     *
+     * @throws IllegalStateException if the password strength is a regular expression, as it
+     *                               cannot be checked incrementally
+     */
+    public IncrementalTextValidator() {
+        this(ValidationUtil.getConfig());
+    }
+
+    /**
+     * Creates a validator for the rules of a config
+     *
+     * @param config the config to check the password and email against
+     * @throws IllegalStateException if the password strength is a regular expression, as it
+     *                               cannot be checked incrementally
+     */
+    public IncrementalTextValidator(@NonNull final ValidationConfig config) {
+        this(getPasswordPolicy(config), config.getEmailRegex());
+    }
+
+    /**
+     * Creates a validator for a password policy and the email rule in use by
+     * {@link ValidationUtil}
+     *
+     * @param policy the policy to check the password against
+     */
+    public IncrementalTextValidator(@NonNull final PasswordPolicy policy) {
+        this(policy, ValidationUtil.getConfig().getEmailRegex());
+    }
+
+    private IncrementalTextValidator(@NonNull final PasswordPolicy policy,
+                                     @Nullable final Pattern emailRegex) {
+        this.policy = requireNonNull(policy);
+        this.emailRegex = emailRegex;
+        this.emailMatcher = emailRegex == null ? new IncrementalEmailMatcher() : null;
+    }
+
+    @NonNull
+    private static PasswordPolicy getPasswordPolicy(@NonNull final ValidationConfig config) {
+        if (config.getPasswordRegex() != null) {
+            throw new IllegalStateException("The password strength is a regular expression, "
+                    + "use a PasswordPolicy to check it incrementally");
+        }
+        return config.getPasswordPolicy();
+    }
+
+    public void setCallback(@Nullable final Callback callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * Call this method to start from a text, like when the validator is added to a field which
+     * already has text in it.
+     *
+     * @param text the current text
+     */
+    public void reset(@NonNull final CharSequence text) {
+        requireNonNull(text);
+        for (int i = 0; i < RULE_COUNT; i++) {
+            classCounts[i] = 0;
+        }
+        length = 0;
+        count(text, 0, text.length(), 1);
+        if (emailMatcher != null) {
+            emailMatcher.reset(text);
+        }
+        this.text = text;
+    }
+
+    @Override
+    public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+        count(s, start, start + count, -1);
+    }
+
+    @Override
+    public void onTextChanged(CharSequence s, int start, int before, int count) {
+        count(s, start, start + count, 1);
+        if (emailMatcher != null) {
+            emailMatcher.replace(s, start, before, count);
+        }
+        text = s;
+    }
+
+    @Override
+    public void afterTextChanged(Editable s) {
+        text = s;
+        if (callback != null) {
+            callback.onTextValidated(this);
+        }
+    }
+
+    private void count(@NonNull final CharSequence s, final int from, final int to, final int delta) {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            int mask = PasswordRule.classify(c);
+            if (mask != 0) {
+                classCounts[Integer.numberOfTrailingZeros(mask)] += delta;
+            }
+        }
+        length += delta * (to - from);
+    }
+
+    private int getFoundMask() {
+        int found = 0;
+        for (int i = 0; i < RULE_COUNT; i++) {
+            if (classCounts[i] > 0) {
+                found |= 1 << i;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the number of characters in the text
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return the number of digits in the text
+     */
+    public int getDigitCount() {
+        return classCounts[PasswordRule.DIGIT.ordinal()];
+    }
+
+    /**
+     * @return the number of whitespace characters in the text
+     */
+    public int getWhiteSpaceCount() {
+        return classCounts[PasswordRule.NO_WHITE_SPACES.ordinal()];
+    }
+
+    /**
+     * @return true if the text satisfies the password policy, in O(1)
+     */
+    public boolean isPasswordStrong() {
+        return policy.getFailedRulesMask(getFoundMask(), length) == 0;
+    }
+
+    /**
+     * @return the rules of the password policy that the text fails
+     */
+    @NonNull
+    public Set<PasswordRule> getFailedPasswordRules() {
+        return PasswordPolicy.toSet(policy.getFailedRulesMask(getFoundMask(), length));
+    }
+
+    /**
+     * @return true if the text is a valid email as per the email rule of the validator, in O(1)
+     * unless the rule is a regular expression
+     */
+    public boolean isEmailValid() {
+        if (emailMatcher == null) {
+            return emailRegex.matcher(text).find();
+        }
+        return emailMatcher.isEmailValid(text);
+    }
+}
@@ -0,0 +1,280 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Rewrites the object keys of a JSON document with a {@link KeyTransform} while streaming it, like
+ * to decode the email keys of a Real-time database export. Everything other than the object keys,
+ * whitespace included, is copied as is. Only the current key and the nesting of the document are
+ * held in memory, so documents of any size can be rewritten.
+ * <br/>
+ * <b>How to use:</b>
+ * <pre>
+ * try (InputStream in = new FileInputStream(export);
+ *      OutputStream out = new FileOutputStream(decoded)) {
+ *     JsonKeyRewriter.rewrite(in, out, KeyTransform.KEY_TO_EMAIL);
+ * }
+ * </pre>
+ * The document is not validated beyond what is needed to find its keys.
+ *
+ * @author Bharath
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class JsonKeyRewriter {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int BUFFER_SIZE = 8192;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Reader in;
+    private final Writer out;
+    private final KeyTransform transform;
+    private final char[] input = new char[BUFFER_SIZE];
+    private final char[] output = new char[BUFFER_SIZE];
+    private int inputPosition;
+    private int inputLimit;
+    private int outputPosition;
+    private final StringBuilder key = new StringBuilder(64);
+    private final StringBuilder transformedKey = new StringBuilder(64);
+    /**
+     * The open containers, true for an object and false for an array
+     */
+    private boolean[] containers = new boolean[32];
+    private int depth;
+
+    private JsonKeyRewriter(@NonNull final Reader in,
+                            @NonNull final Writer out,
+                            @NonNull final KeyTransform transform) {
+        this.in = in;
+        this.out = out;
+        this.transform = transform;
+    }
+
+    /**
+     * Call this method to rewrite the keys of a UTF-8 JSON document. The streams are not closed.
+     *
+     * @param in        the JSON document
+     * @param out       the stream the rewritten document is written to
+     * @param transform the conversion of the keys
+     * @throws IOException if the streams fail, the document ends in the middle of a string or
+     *                     has unbalanced brackets, or a key is rejected by the transform
+     */
+    public static void rewrite(@NonNull final InputStream in,
+                               @NonNull final OutputStream out,
+                               @NonNull final KeyTransform transform) throws IOException {
+        requireNonNull(in);
+        requireNonNull(out);
+        Writer writer = new OutputStreamWriter(out, UTF_8);
+        rewrite(new InputStreamReader(in, UTF_8), writer, transform);
+    }
+
+    /**
+     * Call this method to rewrite the keys of a JSON document. The reader and writer are not
+     * closed, the writer is flushed.
+     *
+     * @param in        the JSON document
+     * @param out       the writer the rewritten document is written to
+     * @param transform the conversion of the keys
+     * @throws IOException if the reader or writer fail, the document ends in the middle of a
+     *                     string or has unbalanced brackets, or a key is rejected by the transform
+     */
+    public static void rewrite(@NonNull final Reader in,
+                               @NonNull final Writer out,
+                               @NonNull final KeyTransform transform) throws IOException {
+        requireNonNull(in);
+        requireNonNull(out);
+        requireNonNull(transform);
+        new JsonKeyRewriter(in, out, transform).rewrite();
+    }
+
+    private void rewrite() throws IOException {
+        boolean expectKey = false;
+        int c;
+        while ((c = read()) >= 0) {
+            switch (c) {
+                case '{':
+                    push(true);
+                    expectKey = true;
+                    write((char) c);
+                    break;
+                case '[':
+                    push(false);
+                    expectKey = false;
+                    write((char) c);
+                    break;
+                case '}':
+                case ']':
+                    pop(c == '}');
+                    expectKey = false;
+                    write((char) c);
+                    break;
+                case ',':
+                    expectKey = depth > 0 && containers[depth - 1];
+                    write((char) c);
+                    break;
+                case ':':
+                    expectKey = false;
+                    write((char) c);
+                    break;
+                case '"':
+                    if (expectKey) {
+                        rewriteKey();
+                        expectKey = false;
+                    } else {
+                        copyString();
+                    }
+                    break;
+                default:
+                    write((char) c);
+                    break;
+            }
+        }
+        if (depth > 0) {
+            throw new EOFException("The JSON document ends with unclosed brackets");
+        }
+        out.write(output, 0, outputPosition);
+        outputPosition = 0;
+        out.flush();
+    }
+
+    private void push(final boolean object) {
+        if (depth == containers.length) {
+            containers = Arrays.copyOf(containers, depth * 2);
+        }
+        containers[depth++] = object;
+    }
+
+    private void pop(final boolean object) throws IOException {
+        if (depth == 0 || containers[depth - 1] != object) {
+            throw new IOException("Unbalanced '" + (object ? '}' : ']') + "' in the JSON document");
+        }
+        depth--;
+    }
+
+    /**
+     * Copies a string value, the opening quote has been read
+     */
+    private void copyString() throws IOException {
+        write('"');
+        while (true) {
+            int c = readInString();
+            write((char) c);
+            if (c == '\\') {
+                write((char) readInString());
+            } else if (c == '"') {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads a key, the opening quote has been read, and writes it transformed
+     */
+    private void rewriteKey() throws IOException {
+        key.setLength(0);
+        while (true) {
+            int c = readInString();
+            if (c == '"') {
+                break;
+            } else if (c == '\\') {
+                key.append(readEscape());
+            } else {
+                key.append((char) c);
+            }
+        }
+        transformedKey.setLength(0);
+        try {
+            transform.append(key, transformedKey);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid key in the JSON document: " + key, e);
+        }
+        write('"');
+        for (int i = 0; i < transformedKey.length(); i++) {
+            char c = transformedKey.charAt(i);
+            if (c == '"' || c == '\\') {
+                write('\\');
+                write(c);
+            } else if (c < 0x20) {
+                write('\\');
+                write('u');
+                write('0');
+                write('0');
+                write(HEX_DIGITS[c >> 4]);
+                write(HEX_DIGITS[c & 0xF]);
+            } else {
+                write(c);
+            }
+        }
+        write('"');
+    }
+
+    private char readEscape() throws IOException {
+        int c = readInString();
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = FirebaseUtils.hexDigit((char) readInString());
+                    if (digit < 0) {
+                        throw new IOException("Invalid unicode escape in a JSON key");
+                    }
+                    value = value << 4 | digit;
+                }
+                return (char) value;
+            default:
+                // '"', '\\' and '/' stand for themselves
+                return (char) c;
+        }
+    }
+
+    private int readInString() throws IOException {
+        int c = read();
+        if (c < 0) {
+            throw new EOFException("The JSON document ends in the middle of a string");
+        }
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (inputPosition == inputLimit) {
+            int count = in.read(input, 0, input.length);
+            if (count <= 0) {
+                return -1;
+            }
+            inputPosition = 0;
+            inputLimit = count;
+        }
+        return input[inputPosition++];
+    }
+
+    private void write(final char c) throws IOException {
+        if (outputPosition == output.length) {
+            out.write(output, 0, outputPosition);
+            outputPosition = 0;
+        }
+        output[outputPosition++] = c;
+    }
+}
@@ -0,0 +1,83 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transcodes ranges of a batch of keys for {@link FirebaseUtils}. Each range converts into a
+ * single buffer, and creates a string only for the keys that actually change. With
+ * deduplication, a range converts each distinct key once and reuses the same result instance for
+ * its repeats.
+ *
+ * @author Bharath
+ */
+final class KeyTranscoder {
+
+    private final KeyTransform transform;
+    private final boolean dedupe;
+
+    KeyTranscoder(@NonNull final KeyTransform transform, final boolean dedupe) {
+        this.transform = transform;
+        this.dedupe = dedupe;
+    }
+
+    /**
+     * Call this method to transcode a range of the keys
+     *
+     * @param keys    the keys, null keys give null results
+     * @param from    the index of the first key, inclusive
+     * @param to      the index of the last key, exclusive
+     * @param results filled with the result of each key at the same index
+     */
+    void transcode(@NonNull final List<String> keys,
+                   final int from,
+                   final int to,
+                   @NonNull final String[] results) {
+        StringBuilder buffer = new StringBuilder(64);
+        Map<String, String> seen = dedupe ? new HashMap<String, String>() : null;
+        for (int i = from; i < to; i++) {
+            String key = keys.get(i);
+            if (key == null) {
+                results[i] = null;
+                continue;
+            }
+            String result = seen == null ? null : seen.get(key);
+            if (result == null) {
+                result = transcode(key, buffer);
+                if (seen != null) {
+                    seen.put(key, result);
+                }
+            }
+            results[i] = result;
+        }
+    }
+
+    /**
+     * Call this method to transcode a key into the buffer
+     *
+     * @return the result, the key itself if it did not change
+     */
+    @NonNull
+    String transcode(@NonNull final String key, @NonNull final StringBuilder buffer) {
+        buffer.setLength(0);
+        transform.append(key, buffer);
+        return contentEquals(buffer, key) ? key : buffer.toString();
+    }
+
+    private static boolean contentEquals(@NonNull final StringBuilder buffer,
+                                         @NonNull final String key) {
+        int length = buffer.length();
+        if (key.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.charAt(i) != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,85 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+
+/**
+ * The key conversions of {@link FirebaseUtils}, to transcode whole batches of keys with
+ * {@link FirebaseUtils#transcodeKeys(java.util.List, KeyTransform, boolean, String[])}.
+ *
+ * @author Bharath
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public enum KeyTransform {
+    /**
+     * {@link FirebaseUtils#getEmailAsFirebaseKey(String)}
+     */
+    EMAIL_TO_KEY {
+        @NonNull
+        @Override
+        public String apply(@NonNull final String text) {
+            return FirebaseUtils.getEmailAsFirebaseKey(text);
+        }
+
+        @Override
+        void append(@NonNull final CharSequence text, @NonNull final StringBuilder out) {
+            FirebaseUtils.appendEmailAsFirebaseKey(text, out);
+        }
+    },
+    /**
+     * {@link FirebaseUtils#getEmailFromFirebaseKey(String)}
+     */
+    KEY_TO_EMAIL {
+        @NonNull
+        @Override
+        public String apply(@NonNull final String text) {
+            return FirebaseUtils.getEmailFromFirebaseKey(text);
+        }
+
+        @Override
+        void append(@NonNull final CharSequence text, @NonNull final StringBuilder out) {
+            FirebaseUtils.appendEmailFromFirebaseKey(text, out);
+        }
+    },
+    /**
+     * {@link FirebaseUtils#escapeKey(String)}
+     */
+    ESCAPE {
+        @NonNull
+        @Override
+        public String apply(@NonNull final String text) {
+            return FirebaseUtils.escapeKey(text);
+        }
+
+        @Override
+        void append(@NonNull final CharSequence text, @NonNull final StringBuilder out) {
+            FirebaseUtils.appendEscapedKey(text, out);
+        }
+    },
+    /**
+     * {@link FirebaseUtils#unescapeKey(String)}
+     */
+    UNESCAPE {
+        @NonNull
+        @Override
+        public String apply(@NonNull final String text) {
+            return FirebaseUtils.unescapeKey(text);
+        }
+
+        @Override
+        void append(@NonNull final CharSequence text, @NonNull final StringBuilder out) {
+            FirebaseUtils.appendUnescapedKey(text, out);
+        }
+    };
+
+    /**
+     * @param text the string to be converted
+     * @return the converted string, the same instance if nothing had to change
+     */
+    @NonNull
+    public abstract String apply(@NonNull String text);
+
+    /**
+     * Appends the converted string to the buffer
+     */
+    abstract void append(@NonNull CharSequence text, @NonNull StringBuilder out);
+}
@@ -0,0 +1,126 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.RequiresApi;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs the bulk operations of the utils over ranges of a batch, splitting large batches across
+ * the cores with a shared {@link ForkJoinPool}.
+ *
+ * @author Bharath
+ */
+final class ParallelBatch {
+
+    /**
+     * Batches smaller than this are not worth splitting and are run on the calling thread
+     */
+    static final int MIN_PARALLEL_SIZE = 1024;
+    private static final int MIN_RANGE_SIZE = 256;
+    private static volatile ForkJoinPool pool;
+
+    private ParallelBatch() {
+    }
+
+    /**
+     * An operation over a range of the items of a batch
+     */
+    interface RangeTask {
+        /**
+         * @param from the index of the first item, inclusive
+         * @param to   the index of the last item, exclusive
+         * @return the number of items that failed
+         */
+        int run(int from, int to);
+    }
+
+    /**
+     * Runs the task over all the items of the batch, in parallel when the batch is large enough.
+     *
+     * @param size the number of items in the batch
+     * @param task the task to run on each range of items
+     * @return the total number of items that failed
+     */
+    @RequiresApi(21)
+    static int run(final int size, @NonNull final RangeTask task) {
+        return run(size, 1, task);
+    }
+
+    /**
+     * Runs the task over all the items of the batch, in parallel when the batch is large enough.
+     * Every range starts at a multiple of the alignment, so that ranges filling a bitmap never
+     * share a word of it.
+     *
+     * @param size      the number of items in the batch
+     * @param alignment a power of two, not more than 64
+     * @param task      the task to run on each range of items
+     * @return the total number of items that failed
+     */
+    @RequiresApi(21)
+    static int run(final int size, final int alignment, @NonNull final RangeTask task) {
+        if (alignment <= 0 || alignment > 64 || Integer.bitCount(alignment) != 1) {
+            throw new IllegalArgumentException("alignment must be a power of two up to 64");
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (size < MIN_PARALLEL_SIZE || cores == 1) {
+            return task.run(0, size);
+        }
+        int rangeSize = Math.max(MIN_RANGE_SIZE, size / (cores * 4));
+        return getPool().invoke(new RangeAction(task, 0, size, rangeSize, alignment));
+    }
+
+    @RequiresApi(21)
+    @NonNull
+    private static ForkJoinPool getPool() {
+        ForkJoinPool current = pool;
+        if (current == null) {
+            synchronized (ParallelBatch.class) {
+                current = pool;
+                if (current == null) {
+                    current = new ForkJoinPool();
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @RequiresApi(21)
+    private static final class RangeAction extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeTask task;
+        private final int from;
+        private final int to;
+        private final int rangeSize;
+        private final int alignment;
+
+        private RangeAction(@NonNull final RangeTask task,
+                            final int from,
+                            final int to,
+                            final int rangeSize,
+                            final int alignment) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.rangeSize = rangeSize;
+            this.alignment = alignment;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= rangeSize) {
+                return task.run(from, to);
+            }
+            // from is aligned and the range is longer than twice the alignment, so the aligned
+            // middle is always inside it
+            int middle = ((from + to) >>> 1) & -alignment;
+            RangeAction left = new RangeAction(task, from, middle, rangeSize, alignment);
+            left.fork();
+            int failures = new RangeAction(task, middle, to, rangeSize, alignment).compute();
+            return failures + left.join();
+        }
+    }
+}
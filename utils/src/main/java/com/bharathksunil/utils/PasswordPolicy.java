@@ -0,0 +1,263 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A set of {@link PasswordRule}s which are all checked in a single pass over the password,
+ * instead of a regular expression look ahead for each rule. Use it for validating the password on
+ * every keystroke.
+ * <br/>
+ * <b>How to use:</b>
+ * <pre>
+ * PasswordPolicy policy = PasswordPolicy.builder()
+ *         .mustHaveDigit()
+ *         .mustHaveUpperCaseAlpha()
+ *         .minimumLength(10)
+ *         .build();
+ * ValidationUtil.setPasswordPolicy(policy);
+ * </pre>
+ * Instances are immutable and thread safe.
+ *
+ * @author Bharath
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class PasswordPolicy {
+
+    /**
+     * The default policy of {@link ValidationUtil}: a digit, a lower case letter, no whitespace and
+     * at least eight characters.
+     */
+    public static final PasswordPolicy DEFAULT = builder()
+            .mustHaveDigit()
+            .mustHaveLowerCaseAlpha()
+            .mustNotHaveWhiteSpaces()
+            .minimumLength(8)
+            .build();
+
+    private static final int CHARACTER_RULES = PasswordRule.DIGIT.mask()
+            | PasswordRule.LOWER_CASE_ALPHA.mask()
+            | PasswordRule.UPPER_CASE_ALPHA.mask()
+            | PasswordRule.SPECIAL_CHAR.mask();
+
+    private final int rules;
+    private final int minimumLength;
+
+    private PasswordPolicy(@NonNull final Builder builder) {
+        this.rules = builder.rules;
+        this.minimumLength = builder.minimumLength;
+    }
+
+    @NonNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the rules of this policy
+     */
+    @NonNull
+    public Set<PasswordRule> getRules() {
+        return toSet(rules);
+    }
+
+    /**
+     * @return the minimum length of the password, 0 if there is no {@link PasswordRule#MINIMAL_LENGTH}
+     */
+    public int getMinimumLength() {
+        return minimumLength;
+    }
+
+    /**
+     * Call this method to check if the password satisfies all the rules of this policy, it does
+     * not allocate.
+     *
+     * @param password the password
+     * @return true if all the rules are satisfied
+     */
+    public boolean isSatisfiedBy(@NonNull final CharSequence password) {
+        requireNonNull(password);
+        return getFailedRulesMask(password) == 0;
+    }
+
+    /**
+     * Call this method to find out which rules of this policy the password fails, like to show
+     * hints in the signup form.
+     *
+     * @param password the password
+     * @return the rules that failed, empty if the password satisfies the policy
+     */
+    @NonNull
+    public Set<PasswordRule> getFailedRules(@NonNull final CharSequence password) {
+        requireNonNull(password);
+        return toSet(getFailedRulesMask(password));
+    }
+
+    /**
+     * Call this method to rate the password for a strength meter, it is fast enough to be called
+     * on every keystroke: the entropy and the failed rules are computed in a single pass and the
+     * password is looked up in a small dictionary of common passwords by binary search.
+     *
+     * @param password the password
+     * @return the strength of the password
+     */
+    @NonNull
+    public PasswordStrength getStrength(@NonNull final CharSequence password) {
+        requireNonNull(password);
+        int length = password.length();
+        int found = 0;
+        boolean otherSymbols = false;
+        boolean nonAscii = false;
+        int predictable = 0;
+        char previous = 0;
+        for (int i = 0; i < length; i++) {
+            char c = password.charAt(i);
+            if (i > 0 && Math.abs(c - previous) <= 1) {
+                predictable++;
+            }
+            previous = c;
+            int mask = PasswordRule.classify(c);
+            if (mask == 0) {
+                if (c < 128) {
+                    otherSymbols = true;
+                } else {
+                    nonAscii = true;
+                }
+            }
+            found |= mask;
+        }
+        boolean common = CommonPasswords.contains(password);
+        double entropyBits = common ? 0 : PasswordStrength.getEntropyBits(length, predictable,
+                found, otherSymbols, nonAscii);
+        return new PasswordStrength(entropyBits, getFailedRulesMask(found, length), common);
+    }
+
+    /**
+     * @param password the password
+     * @return the bits of the {@link PasswordRule}s that the password fails
+     */
+    int getFailedRulesMask(@NonNull final CharSequence password) {
+        int length = password.length();
+        int found = 0;
+        for (int i = 0; i < length; i++) {
+            found |= PasswordRule.classify(password.charAt(i));
+        }
+        return getFailedRulesMask(found, length);
+    }
+
+    /**
+     * @param found  the bits of the characters found in the password, see
+     *               {@link PasswordRule#classify(char)}
+     * @param length the length of the password
+     * @return the bits of the {@link PasswordRule}s that the password fails
+     */
+    int getFailedRulesMask(final int found, final int length) {
+        int failed = rules & CHARACTER_RULES & ~found;
+        failed |= rules & found & PasswordRule.NO_WHITE_SPACES.mask();
+        if (length < minimumLength) {
+            failed |= PasswordRule.MINIMAL_LENGTH.mask();
+        }
+        return failed;
+    }
+
+    /**
+     * Call this method to get the regular expression of this policy, built from the MUST_*
+     * constants of {@link ValidationUtil}. It matches the same passwords as the policy, except
+     * for passwords with line terminators: $ also matches before a final line terminator, so the
+     * pattern accepts a single trailing one that the policy rejects as whitespace, and without
+     * {@link PasswordRule#NO_WHITE_SPACES} the pattern rejects the line terminators that . does
+     * not match, which the policy accepts.
+     *
+     * @return the pattern of this policy
+     */
+    @NonNull
+    public Pattern toPattern() {
+        StringBuilder regex = new StringBuilder("^");
+        for (PasswordRule rule : getRules()) {
+            if (rule != PasswordRule.MINIMAL_LENGTH) {
+                regex.append(rule.getRegex());
+            }
+        }
+        regex.append(".{").append(minimumLength).append(",}$");
+        return Pattern.compile(regex.toString());
+    }
+
+    @NonNull
+    static Set<PasswordRule> toSet(final int mask) {
+        Set<PasswordRule> set = EnumSet.noneOf(PasswordRule.class);
+        for (PasswordRule rule : PasswordRule.values()) {
+            if ((mask & rule.mask()) != 0) {
+                set.add(rule);
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Builds a {@link PasswordPolicy}, a new builder has no rules.
+     */
+    public static final class Builder {
+        private int rules;
+        private int minimumLength;
+
+        private Builder() {
+        }
+
+        @NonNull
+        public Builder mustHaveDigit() {
+            rules |= PasswordRule.DIGIT.mask();
+            return this;
+        }
+
+        @NonNull
+        public Builder mustHaveLowerCaseAlpha() {
+            rules |= PasswordRule.LOWER_CASE_ALPHA.mask();
+            return this;
+        }
+
+        @NonNull
+        public Builder mustHaveUpperCaseAlpha() {
+            rules |= PasswordRule.UPPER_CASE_ALPHA.mask();
+            return this;
+        }
+
+        @NonNull
+        public Builder mustHaveSpecialChar() {
+            rules |= PasswordRule.SPECIAL_CHAR.mask();
+            return this;
+        }
+
+        @NonNull
+        public Builder mustNotHaveWhiteSpaces() {
+            rules |= PasswordRule.NO_WHITE_SPACES.mask();
+            return this;
+        }
+
+        /**
+         * @param length the minimum number of characters, 0 to allow any length
+         */
+        @NonNull
+        public Builder minimumLength(final int length) {
+            if (length < 0) {
+                throw new IllegalArgumentException("length must not be negative: " + length);
+            }
+            minimumLength = length;
+            if (length > 0) {
+                rules |= PasswordRule.MINIMAL_LENGTH.mask();
+            } else {
+                rules &= ~PasswordRule.MINIMAL_LENGTH.mask();
+            }
+            return this;
+        }
+
+        @NonNull
+        public PasswordPolicy build() {
+            return new PasswordPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+
+/**
+ * The rules a password can be checked against by a {@link PasswordPolicy}, each rule corresponds
+ * to one of the MUST_* regular expressions of {@link ValidationUtil}.
+ *
+ * @author Bharath
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public enum PasswordRule {
+    /**
+     * a digit must occur at least once
+     */
+    DIGIT(ValidationUtil.MUST_HAVE_DIGIT),
+    /**
+     * a lower case letter must occur at least once
+     */
+    LOWER_CASE_ALPHA(ValidationUtil.MUST_HAVE_LOWER_CASE_ALPHA),
+    /**
+     * an upper case letter must occur at least once
+     */
+    UPPER_CASE_ALPHA(ValidationUtil.MUST_HAVE_UPPER_CASE_ALPHA),
+    /**
+     * a special character must occur at least once
+     */
+    SPECIAL_CHAR(ValidationUtil.MUST_HAVE_SPECIAL_CHAR),
+    /**
+     * no whitespace allowed in the entire string, the line terminators U+0085, U+2028 and
+     * U+2029 count as whitespace
+     */
+    NO_WHITE_SPACES(ValidationUtil.MUST_NOT_HAVE_WHITE_SPACES),
+    /**
+     * at least the minimum length of the policy, eight by default
+     */
+    MINIMAL_LENGTH(ValidationUtil.MUST_HAVE_MINIMAL_8_CHAR);
+
+    private final String regex;
+
+    PasswordRule(@NonNull final String regex) {
+        this.regex = regex;
+    }
+
+    /**
+     * @return the regular expression of the rule, the one for {@link #MINIMAL_LENGTH} is for the
+     * default length of eight characters
+     */
+    @NonNull
+    public String getRegex() {
+        return regex;
+    }
+
+    int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Classifies the character into the bits of the rules it satisfies, whitespace sets the bit of
+     * {@link #NO_WHITE_SPACES} as that rule is violated by it. The line terminators which are not
+     * whitespace for \s are classified as whitespace too, as the regular expressions of the rules
+     * reject them: . does not match them.
+     *
+     * @param c the character
+     * @return the mask of the rules
+     */
+    static int classify(final char c) {
+        if (c >= '0' && c <= '9') {
+            return 1 << DIGIT.ordinal();
+        } else if (c >= 'a' && c <= 'z') {
+            return 1 << LOWER_CASE_ALPHA.ordinal();
+        } else if (c >= 'A' && c <= 'Z') {
+            return 1 << UPPER_CASE_ALPHA.ordinal();
+        }
+        switch (c) {
+            case '@':
+            case '#':
+            case '$':
+            case '%':
+            case '^':
+            case '&':
+            case '+':
+            case '=':
+                return 1 << SPECIAL_CHAR.ordinal();
+            case ' ':
+            case '\t':
+            case '\n':
+            case '\u000B':
+            case '\f':
+            case '\r':
+            case '\u0085':
+            case '\u2028':
+            case '\u2029':
+                return 1 << NO_WHITE_SPACES.ordinal();
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+
+import java.util.Set;
+
+/**
+ * The strength of a password, as computed by {@link PasswordPolicy#getStrength(CharSequence)}:
+ * an estimate of its entropy, a score for a strength meter and the rules of the policy it fails.
+ * <br/>
+ * The entropy is estimated as length * log2(pool), where the pool is the number of characters in
+ * the classes used by the password: digits, lower case and upper case letters, the special
+ * characters of {@link ValidationUtil#MUST_HAVE_SPECIAL_CHAR}, other ASCII symbols, whitespace
+ * and non ASCII characters. A character which repeats or continues a sequence of the previous
+ * one, like in "aaaa" or "1234", adds only a bit. Common passwords have no entropy at all.
+ *
+ * @author Bharath
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class PasswordStrength {
+
+    public static final int SCORE_VERY_WEAK = 0;
+    public static final int SCORE_WEAK = 1;
+    public static final int SCORE_FAIR = 2;
+    public static final int SCORE_STRONG = 3;
+    public static final int SCORE_VERY_STRONG = 4;
+
+    private static final double LN_2 = Math.log(2);
+    /**
+     * The printable ASCII symbols which are not {@link PasswordRule#SPECIAL_CHAR}s
+     */
+    private static final int OTHER_SYMBOLS_POOL = 24;
+    /**
+     * A conservative guess, a password rarely uses more than a script of non ASCII characters
+     */
+    private static final int NON_ASCII_POOL = 64;
+
+    private final double entropyBits;
+    private final int failedRules;
+    private final boolean common;
+
+    PasswordStrength(final double entropyBits, final int failedRules, final boolean common) {
+        this.entropyBits = entropyBits;
+        this.failedRules = failedRules;
+        this.common = common;
+    }
+
+    /**
+     * @param length       the length of the password
+     * @param predictable  the number of characters which repeat or continue the previous one
+     * @param found        the bits of the characters found in the password, see
+     *                     {@link PasswordRule#classify(char)}
+     * @param otherSymbols true if the password has ASCII characters of no class
+     * @param nonAscii     true if the password has non ASCII characters
+     * @return the entropy estimate in bits
+     */
+    static double getEntropyBits(final int length,
+                                 final int predictable,
+                                 final int found,
+                                 final boolean otherSymbols,
+                                 final boolean nonAscii) {
+        int pool = 0;
+        if ((found & PasswordRule.DIGIT.mask()) != 0) {
+            pool += 10;
+        }
+        if ((found & PasswordRule.LOWER_CASE_ALPHA.mask()) != 0) {
+            pool += 26;
+        }
+        if ((found & PasswordRule.UPPER_CASE_ALPHA.mask()) != 0) {
+            pool += 26;
+        }
+        if ((found & PasswordRule.SPECIAL_CHAR.mask()) != 0) {
+            pool += 8;
+        }
+        if ((found & PasswordRule.NO_WHITE_SPACES.mask()) != 0) {
+            pool += 1;
+        }
+        if (otherSymbols) {
+            pool += OTHER_SYMBOLS_POOL;
+        }
+        if (nonAscii) {
+            pool += NON_ASCII_POOL;
+        }
+        if (pool <= 1) {
+            return predictable;
+        }
+        return (length - predictable) * (Math.log(pool) / LN_2) + predictable;
+    }
+
+    /**
+     * @return the estimated entropy of the password in bits
+     */
+    public double getEntropyBits() {
+        return entropyBits;
+    }
+
+    /**
+     * @return the score from {@link #SCORE_VERY_WEAK} to {@link #SCORE_VERY_STRONG}, by the
+     * entropy: below 28 bits, 36 bits, 60 bits, 128 bits and above
+     */
+    public int getScore() {
+        if (entropyBits < 28) {
+            return SCORE_VERY_WEAK;
+        } else if (entropyBits < 36) {
+            return SCORE_WEAK;
+        } else if (entropyBits < 60) {
+            return SCORE_FAIR;
+        } else if (entropyBits < 128) {
+            return SCORE_STRONG;
+        }
+        return SCORE_VERY_STRONG;
+    }
+
+    /**
+     * @return the rules of the policy that the password fails, empty if it satisfies the policy
+     */
+    @NonNull
+    public Set<PasswordRule> getFailedRules() {
+        return PasswordPolicy.toSet(failedRules);
+    }
+
+    /**
+     * @return true if the password is one of the most common passwords
+     */
+    public boolean isCommon() {
+        return common;
+    }
+
+    /**
+     * @return true if the password satisfies the policy and is not a common password
+     */
+    public boolean isAcceptable() {
+        return failedRules == 0 && !common;
+    }
+
+    @Override
+    public String toString() {
+        return "PasswordStrength{entropyBits=" + entropyBits + ", score=" + getScore()
+                + ", failedRules=" + getFailedRules() + ", common=" + common + '}';
+    }
+}
@@ -0,0 +1,103 @@
+package com.bharathksunil.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.widget.TextView;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The single tick shared by all the views bound by {@link RelativeTimeUtils}. It is scheduled for
+ * the earliest time at which one of the labels changes, and on each tick only the labels that are
+ * due are formatted again and set if their text changed. The views are held weakly so that a
+ * bound view never leaks.
+ *
+ * @author Bharath
+ */
+@MainThread
+final class RelativeTimeTicker implements Runnable {
+
+    @Nullable
+    private static RelativeTimeTicker instance;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Map<TextView, Binding> bindings = new WeakHashMap<>();
+    private long scheduledTime = Long.MAX_VALUE;
+
+    private RelativeTimeTicker() {
+    }
+
+    @NonNull
+    static RelativeTimeTicker getInstance() {
+        if (instance == null) {
+            instance = new RelativeTimeTicker();
+        }
+        return instance;
+    }
+
+    void bind(@NonNull final TextView view, final long time) {
+        Binding binding = bindings.get(view);
+        if (binding == null) {
+            binding = new Binding();
+            bindings.put(view, binding);
+        }
+        binding.time = time;
+        long now = System.currentTimeMillis();
+        update(view, binding, now);
+        schedule(binding.nextUpdateTime, now);
+    }
+
+    void unbind(@NonNull final TextView view) {
+        bindings.remove(view);
+        if (bindings.isEmpty()) {
+            handler.removeCallbacks(this);
+            scheduledTime = Long.MAX_VALUE;
+        }
+    }
+
+    @Override
+    public void run() {
+        scheduledTime = Long.MAX_VALUE;
+        long now = System.currentTimeMillis();
+        long nextUpdateTime = Long.MAX_VALUE;
+        for (Map.Entry<TextView, Binding> entry : bindings.entrySet()) {
+            Binding binding = entry.getValue();
+            if (binding.nextUpdateTime <= now) {
+                update(entry.getKey(), binding, now);
+            }
+            nextUpdateTime = Math.min(nextUpdateTime, binding.nextUpdateTime);
+        }
+        schedule(nextUpdateTime, now);
+    }
+
+    private static void update(@NonNull final TextView view,
+                               @NonNull final Binding binding,
+                               final long now) {
+        String label = RelativeTimeUtils.getRelativeTimeLabel(view.getResources(), binding.time, now);
+        if (!label.contentEquals(view.getText())) {
+            view.setText(label);
+        }
+        binding.nextUpdateTime = RelativeTimeUtils.getNextLabelChange(binding.time, now);
+    }
+
+    private void schedule(final long time, final long now) {
+        if (time == Long.MAX_VALUE || time >= scheduledTime) {
+            return;
+        }
+        handler.removeCallbacks(this);
+        scheduledTime = time;
+        handler.postDelayed(this, Math.max(0, time - now));
+    }
+
+    /**
+     * The time bound to a view and when its label changes next
+     */
+    private static final class Binding {
+        private long time;
+        private long nextUpdateTime;
+    }
+}
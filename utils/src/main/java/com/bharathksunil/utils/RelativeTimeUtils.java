@@ -0,0 +1,112 @@
+package com.bharathksunil.utils;
+
+import android.content.res.Resources;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.widget.TextView;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Use this utility to show "5 mins ago" like labels for the times of the items in a list. The
+ * labels of all the bound views are refreshed by a single shared tick, which runs only when one of
+ * the labels is due to change and updates only those labels.
+ * <br/>
+ * <b>How to use:</b> call {@link #bindRelativeTime(TextView, long)} in the onBindViewHolder of the
+ * adapter, the label is then kept up to date until the view is bound to another time or is
+ * garbage collected.
+ *
+ * @author Bharath
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class RelativeTimeUtils {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final long WEEK = TimeUnit.DAYS.toMillis(7);
+
+    private RelativeTimeUtils() {
+        //do not let anyone create an instance of this class
+    }
+
+    /**
+     * Call this method to get the relative label of the time, like "just now", "5 mins ago",
+     * "2 hours ago" or "3 days ago". Times older than a week are shown as the date string of
+     * {@link DateUtil#getDateAsString(Date)}.
+     *
+     * @param resources the resources to get the labels from
+     * @param time      the time in milliseconds since the epoch
+     * @param now       the current time in milliseconds since the epoch
+     * @return the label of the time
+     */
+    @NonNull
+    public static String getRelativeTimeLabel(@NonNull final Resources resources,
+                                              final long time,
+                                              final long now) {
+        requireNonNull(resources);
+        long elapsed = now - time;
+        if (elapsed < MINUTE) {
+            return resources.getString(R.string.relative_time_just_now);
+        } else if (elapsed < HOUR) {
+            int minutes = (int) (elapsed / MINUTE);
+            return resources.getQuantityString(R.plurals.relative_time_minutes_ago, minutes, minutes);
+        } else if (elapsed < DAY) {
+            int hours = (int) (elapsed / HOUR);
+            return resources.getQuantityString(R.plurals.relative_time_hours_ago, hours, hours);
+        } else if (elapsed < WEEK) {
+            int days = (int) (elapsed / DAY);
+            return resources.getQuantityString(R.plurals.relative_time_days_ago, days, days);
+        }
+        return DateUtil.getDateAsString(new Date(time));
+    }
+
+    /**
+     * Call this method to get the time at which the label of
+     * {@link #getRelativeTimeLabel(Resources, long, long)} changes next.
+     *
+     * @param time the time in milliseconds since the epoch
+     * @param now  the current time in milliseconds since the epoch
+     * @return the next time the label changes or {@link Long#MAX_VALUE} if it never changes
+     */
+    public static long getNextLabelChange(final long time, final long now) {
+        long elapsed = now - time;
+        if (elapsed < MINUTE) {
+            return time + MINUTE;
+        } else if (elapsed < HOUR) {
+            return time + (elapsed / MINUTE + 1) * MINUTE;
+        } else if (elapsed < DAY) {
+            return time + (elapsed / HOUR + 1) * HOUR;
+        } else if (elapsed < WEEK) {
+            return time + (elapsed / DAY + 1) * DAY;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Call this method to show the relative label of the time in the view and keep it up to date.
+     * Binding the view again, like when it is recycled, replaces its time.
+     *
+     * @param view the view to show the label in
+     * @param time the time in milliseconds since the epoch
+     */
+    @MainThread
+    public static void bindRelativeTime(@NonNull final TextView view, final long time) {
+        requireNonNull(view);
+        RelativeTimeTicker.getInstance().bind(view, time);
+    }
+
+    /**
+     * Call this method to stop updating the label of the view.
+     *
+     * @param view the view that was bound with {@link #bindRelativeTime(TextView, long)}
+     */
+    @MainThread
+    public static void unbindRelativeTime(@NonNull final TextView view) {
+        requireNonNull(view);
+        RelativeTimeTicker.getInstance().unbind(view);
+    }
+}
@@ -1,17 +1,24 @@
 package com.bharathksunil.utils;
 
+import android.content.res.ColorStateList;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.ColorFilter;
 import android.graphics.Paint;
 import android.graphics.PixelFormat;
+import android.graphics.PorterDuff;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Typeface;
 import android.graphics.drawable.ShapeDrawable;
-import android.graphics.drawable.shapes.OvalShape;
-import android.graphics.drawable.shapes.RectShape;
-import android.graphics.drawable.shapes.RoundRectShape;
+import android.support.annotation.Nullable;
+import android.support.annotation.RequiresApi;
+import android.support.annotation.WorkerThread;
+
+import static com.bharathksunil.utils.TextDrawableStyles.SHAPE_RECT;
+import static com.bharathksunil.utils.TextDrawableStyles.SHAPE_ROUND;
+import static com.bharathksunil.utils.TextDrawableStyles.SHAPE_ROUND_RECT;
 
 /**
  * TextDrawable This light-weight library provides images with letter/text like the Gmail app
@@ -23,70 +30,235 @@ import android.graphics.drawable.shapes.RoundRectShape;
 public final class TextDrawable extends ShapeDrawable {
 
     private static final float SHADE_FACTOR = 0.9f;
-    private final Paint mTextPaint;
+    /**
+     * The bitmaps of the drawables built from a {@link Template#withRenderCache()}, null when the
+     * render cache is not enabled
+     */
+    @Nullable
+    private static volatile TextDrawableRenderCache sRenderCache;
+    /**
+     * The text paint shared through {@link TextDrawableStyles}, replaced by a private copy when
+     * the alpha or color filter of the drawable is changed
+     */
+    private Paint mTextPaint;
+    private boolean mOwnsTextPaint;
+    /**
+     * True once the fill paint is handed out by {@link #getPaint()} or tinted, from then on the
+     * fill may differ from the color of the render key, so the bitmap is not used
+     */
+    private boolean mFillPaintChanged;
     private final Paint mBorderPaint;
     private final String mText;
     @SuppressWarnings("FieldCanBeLocal")
     private final int mColor;
-    private final RectShape mShape;
-    private final int mDrawableHeight;
-    private final int mDrawableWidth;
-    private final int mTextFontSize;
-    private final float mDrawableRadius;
-    private final int mDrawableBorderThickness;
-
-    //todo: Add documentation and code cleanup
-    private TextDrawable(Builder builder) {
-        super(builder.shape);
-
-        // shape properties
-        mShape = builder.shape;
-        mDrawableHeight = builder.height;
-        mDrawableWidth = builder.width;
-        mDrawableRadius = builder.mDrawableRadius;
+    /**
+     * The style of the drawable, shared with the other drawables built from it
+     */
+    private final Template mTemplate;
+    /**
+     * The layout of the text and border, computed for the current bounds in
+     * {@link #onBoundsChange(Rect)} so that {@link #draw(Canvas)} allocates and measures nothing
+     */
+    private final RectF mBorderRect = new RectF();
+    private int mFontSize;
+    private float mTextX;
+    private float mTextY;
+    /**
+     * The rendered bitmap for the current bounds in the cached mode, it is held by the drawable
+     * so that drawing it does not look up the cache
+     */
+    @Nullable
+    private Bitmap mBitmap;
+    @Nullable
+    private TextDrawableRenderCache mBitmapCache;
+    @Nullable
+    private Paint mBitmapPaint;
+
+    private TextDrawable(Template template, String text, int color) {
+        super(TextDrawableStyles.newShape(template.shapeKind, template.radius));
+        mTemplate = template;
 
         // text and color
-        mText = builder.toUpperCase ? builder.mDrawableText.toUpperCase() : builder.mDrawableText;
-        mColor = builder.color;
-
-        // text paint settings
-        mTextFontSize = builder.fontSize;
-        mTextPaint = new Paint();
-        mTextPaint.setColor(builder.mTextColor);
-        mTextPaint.setAntiAlias(true);
-        mTextPaint.setFakeBoldText(builder.isBold);
-        mTextPaint.setStyle(Paint.Style.FILL);
-        mTextPaint.setTypeface(builder.font);
-        mTextPaint.setTextAlign(Paint.Align.CENTER);
-        mTextPaint.setStrokeWidth(builder.borderThickness);
+        mText = template.toUpperCase ? text.toUpperCase() : text;
+        mColor = color;
+        super.getPaint().setColor(color);
 
         // border paint settings
-        mDrawableBorderThickness = builder.borderThickness;
-        mBorderPaint = new Paint();
-        mBorderPaint.setColor(getDarkerShade(mColor));
-        mBorderPaint.setStyle(Paint.Style.STROKE);
-        mBorderPaint.setStrokeWidth(mDrawableBorderThickness);
+        mBorderPaint = TextDrawableStyles.getBorderPaint(getDarkerShade(color),
+                template.borderThickness);
 
+        updateLayout(getBounds());
     }
 
     public static IShapeBuilder builder() {
         return new Builder();
     }
 
+    /**
+     * Call this method to share the rendered bitmaps of the drawables built from a
+     * {@link Template#withRenderCache()}. Each unique combination of text, colors, shape,
+     * size, font and border is then rendered only once and drawn as a bitmap afterwards, like for
+     * the avatars of a long contact list. Calling this again replaces the cache with an empty one.
+     *
+     * @param maxBytes the maximum total size of the bitmaps, a 96px avatar takes 36KB
+     */
+    public static void enableRenderCache(int maxBytes) {
+        sRenderCache = new TextDrawableRenderCache(maxBytes);
+    }
+
+    /**
+     * Call this method to stop caching the rendered bitmaps and release the cache.
+     */
+    public static void disableRenderCache() {
+        TextDrawableRenderCache cache = sRenderCache;
+        sRenderCache = null;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Call this method to get the hit, miss and eviction counts of the render cache, its size is
+     * in bytes.
+     *
+     * @return the stats of the cache or null if the cache is not enabled.
+     * @see #enableRenderCache(int)
+     */
+    @Nullable
+    public static CacheStats getRenderCacheStats() {
+        TextDrawableRenderCache cache = sRenderCache;
+        return cache == null ? null : cache.getStats();
+    }
+
     private int getDarkerShade(int color) {
         return Color.rgb((int) (SHADE_FACTOR * Color.red(color)),
                 (int) (SHADE_FACTOR * Color.green(color)),
                 (int) (SHADE_FACTOR * Color.blue(color)));
     }
 
+    @Override
+    protected void onBoundsChange(Rect bounds) {
+        super.onBoundsChange(bounds);
+        updateLayout(bounds);
+    }
+
+    /**
+     * Computes the text size, the text position and the border rect for the bounds
+     */
+    private void updateLayout(Rect bounds) {
+        Template template = mTemplate;
+        int width = template.width < 0 ? bounds.width() : template.width;
+        int height = template.height < 0 ? bounds.height() : template.height;
+        int fontSize = template.fontSize < 0 ? (Math.min(width, height) / 2) : template.fontSize;
+        mFontSize = fontSize;
+        if (mOwnsTextPaint) {
+            mTextPaint.setTextSize(fontSize);
+        } else {
+            mTextPaint = TextDrawableStyles.getTextPaint(template.textColor, template.font,
+                    template.bold, fontSize, template.borderThickness);
+        }
+        mTextX = width / 2;
+        mTextY = height / 2 - ((mTextPaint.descent() + mTextPaint.ascent()) / 2);
+
+        mBorderRect.set(bounds);
+        mBorderRect.inset(mTemplate.borderThickness / 2, mTemplate.borderThickness / 2);
+        // the bitmap is drawn at the offset of the bounds, so it is kept while their size is
+        if (mBitmap != null && (mBitmap.getWidth() != bounds.width()
+                || mBitmap.getHeight() != bounds.height())) {
+            mBitmap = null;
+        }
+    }
+
     @Override
     public void draw(Canvas canvas) {
-        super.draw(canvas);
+        if ((mBitmap != null || mTemplate.useRenderCache) && drawCached(canvas)) {
+            return;
+        }
+        drawShapeAndText(canvas);
+    }
+
+    /**
+     * Draws the pre-rendered bitmap of the drawable, or its bitmap from the render cache,
+     * rendering it if it is not cached
+     *
+     * @return false if there is no bitmap to draw, or the alpha or color filter of the text, the
+     * fill paint or the shader factory was changed so the drawable cannot share its bitmap
+     */
+    private boolean drawCached(Canvas canvas) {
         Rect r = getBounds();
+        if (r.isEmpty() || mOwnsTextPaint || mFillPaintChanged || getShaderFactory() != null) {
+            return false;
+        }
+        TextDrawableRenderCache cache = sRenderCache;
+        if (mBitmap == null || (mTemplate.useRenderCache && mBitmapCache != cache)) {
+            if (!mTemplate.useRenderCache || cache == null) {
+                mBitmap = null;
+                return false;
+            }
+            mBitmap = getBitmap(cache);
+            mBitmapCache = cache;
+        }
+        if (mBitmapPaint == null) {
+            mBitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        }
+        canvas.drawBitmap(mBitmap, r.left, r.top, mBitmapPaint);
+        return true;
+    }
+
+    /**
+     * Renders the drawable for its current bounds off the main thread, before it is handed to
+     * the main thread, so that it draws the bitmap. The bitmap is shared through the render cache
+     * when it is enabled, whether or not the template uses it.
+     *
+     * @see TextDrawablePrerenderer
+     */
+    @WorkerThread
+    void prerender() {
+        if (getBounds().isEmpty()) {
+            return;
+        }
+        TextDrawableRenderCache cache = sRenderCache;
+        mBitmap = cache == null ? render() : getBitmap(cache);
+        mBitmapCache = cache;
+    }
 
+    /**
+     * @return the bitmap of the drawable from the cache, rendered and cached if it is missing
+     */
+    private Bitmap getBitmap(TextDrawableRenderCache cache) {
+        TextDrawableRenderCache.RenderKey key = getRenderKey();
+        Bitmap bitmap = cache.get(key);
+        if (bitmap == null) {
+            bitmap = render();
+            cache.put(key, bitmap);
+        }
+        return bitmap;
+    }
+
+    private TextDrawableRenderCache.RenderKey getRenderKey() {
+        Rect r = getBounds();
+        return mTemplate.getRenderKey(mText, mColor, r.width(), r.height(), mFontSize, mTextX,
+                mTextY);
+    }
+
+    /**
+     * Renders the shape and text of the drawable for its current bounds into a new bitmap
+     */
+    private Bitmap render() {
+        Rect r = getBounds();
+        Bitmap bitmap = Bitmap.createBitmap(r.width(), r.height(), Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        canvas.translate(-r.left, -r.top);
+        drawShapeAndText(canvas);
+        return bitmap;
+    }
+
+    private void drawShapeAndText(Canvas canvas) {
+        super.draw(canvas);
+        Rect r = getBounds();
 
         // draw border
-        if (mDrawableBorderThickness > 0) {
+        if (mTemplate.borderThickness > 0) {
             drawBorder(canvas);
         }
 
@@ -94,37 +266,69 @@ public final class TextDrawable extends ShapeDrawable {
         canvas.translate(r.left, r.top);
 
         // draw text
-        int width = this.mDrawableWidth < 0 ? r.width() : this.mDrawableWidth;
-        int height = this.mDrawableHeight < 0 ? r.height() : this.mDrawableHeight;
-        int fontSize = this.mTextFontSize < 0 ? (Math.min(width, height) / 2) : this.mTextFontSize;
-        mTextPaint.setTextSize(fontSize);
-        canvas.drawText(mText, width / 2, height / 2 - ((mTextPaint.descent() + mTextPaint.ascent()) / 2), mTextPaint);
+        canvas.drawText(mText, mTextX, mTextY, mTextPaint);
 
         canvas.restoreToCount(count);
-
     }
 
     private void drawBorder(Canvas canvas) {
-        RectF rect = new RectF(getBounds());
-        rect.inset(mDrawableBorderThickness / 2, mDrawableBorderThickness / 2);
+        switch (mTemplate.shapeKind) {
+            case SHAPE_ROUND:
+                canvas.drawOval(mBorderRect, mBorderPaint);
+                break;
+            case SHAPE_ROUND_RECT:
+                float radius = mTemplate.radius;
+                canvas.drawRoundRect(mBorderRect, radius, radius, mBorderPaint);
+                break;
+            default:
+                canvas.drawRect(mBorderRect, mBorderPaint);
+                break;
+        }
+    }
 
-        if (mShape instanceof OvalShape) {
-            canvas.drawOval(rect, mBorderPaint);
-        } else if (mShape instanceof RoundRectShape) {
-            canvas.drawRoundRect(rect, mDrawableRadius, mDrawableRadius, mBorderPaint);
-        } else {
-            canvas.drawRect(rect, mBorderPaint);
+    /**
+     * @return the text paint of this drawable alone, copying the shared one on the first call
+     */
+    private Paint getOwnTextPaint() {
+        if (!mOwnsTextPaint) {
+            mTextPaint = new Paint(mTextPaint);
+            mOwnsTextPaint = true;
         }
+        return mTextPaint;
+    }
+
+    /**
+     * @return the fill paint, changing it stops the drawable from using its pre-rendered or
+     * cached bitmap
+     */
+    @Override
+    public Paint getPaint() {
+        mFillPaintChanged = true;
+        return super.getPaint();
+    }
+
+    @RequiresApi(21)
+    @Override
+    public void setTintList(@Nullable ColorStateList tint) {
+        mFillPaintChanged = true;
+        super.setTintList(tint);
+    }
+
+    @RequiresApi(21)
+    @Override
+    public void setTintMode(@Nullable PorterDuff.Mode tintMode) {
+        mFillPaintChanged = true;
+        super.setTintMode(tintMode);
     }
 
     @Override
     public void setAlpha(int alpha) {
-        mTextPaint.setAlpha(alpha);
+        getOwnTextPaint().setAlpha(alpha);
     }
 
     @Override
     public void setColorFilter(ColorFilter cf) {
-        mTextPaint.setColorFilter(cf);
+        getOwnTextPaint().setColorFilter(cf);
     }
 
     @Override
@@ -134,12 +338,12 @@ public final class TextDrawable extends ShapeDrawable {
 
     @Override
     public int getIntrinsicWidth() {
-        return mDrawableWidth;
+        return mTemplate.width;
     }
 
     @Override
     public int getIntrinsicHeight() {
-        return mDrawableHeight;
+        return mTemplate.height;
     }
 
     public interface IConfigBuilder {
@@ -167,6 +371,147 @@ public final class TextDrawable extends ShapeDrawable {
         TextDrawable build(String text, int color);
     }
 
+    /**
+     * The immutable style of the drawables: the shape, size, text color, font and border. It is
+     * created once by {@link #of(IBuilder)} and then builds drawables for any text and color, from
+     * any thread, like for the avatars of the items of a list prepared during prefetch.
+     */
+    public static final class Template {
+        private final int shapeKind;
+        private final float radius;
+        private final int width;
+        private final int height;
+        private final int textColor;
+        private final Typeface font;
+        private final int fontSize;
+        private final boolean bold;
+        private final boolean toUpperCase;
+        private final int borderThickness;
+        private final boolean useRenderCache;
+
+        private Template(Builder builder) {
+            shapeKind = builder.shapeKind;
+            radius = builder.mDrawableRadius;
+            width = builder.width;
+            height = builder.height;
+            textColor = builder.mTextColor;
+            font = builder.font;
+            fontSize = builder.fontSize;
+            bold = builder.isBold;
+            toUpperCase = builder.toUpperCase;
+            borderThickness = builder.borderThickness;
+            useRenderCache = false;
+        }
+
+        private Template(Template template, boolean useRenderCache) {
+            shapeKind = template.shapeKind;
+            radius = template.radius;
+            width = template.width;
+            height = template.height;
+            textColor = template.textColor;
+            font = template.font;
+            fontSize = template.fontSize;
+            bold = template.bold;
+            toUpperCase = template.toUpperCase;
+            borderThickness = template.borderThickness;
+            this.useRenderCache = useRenderCache;
+        }
+
+        /**
+         * @param builder a builder of {@link TextDrawable#builder()} with its shape chosen
+         * @return the immutable style configured by the builder, to build drawables from any
+         * thread without a builder
+         */
+        public static Template of(IBuilder builder) {
+            if (!(builder instanceof Builder)) {
+                throw new IllegalArgumentException("builder must come from TextDrawable.builder()");
+            }
+            return ((Builder) builder).toTemplate();
+        }
+
+        /**
+         * @return this style, drawing its drawables as bitmaps shared through the render cache
+         * when it is enabled by {@link TextDrawable#enableRenderCache(int)}
+         */
+        public Template withRenderCache() {
+            return useRenderCache ? this : new Template(this, true);
+        }
+
+        /**
+         * Builds a drawable of this style, it is safe to call from any thread.
+         *
+         * @param text  the text of the drawable
+         * @param color the fill color of the drawable
+         * @return the new drawable
+         */
+        public TextDrawable build(String text, int color) {
+            return new TextDrawable(this, text, color);
+        }
+
+        /**
+         * @return the intrinsic width of the drawables, -1 when they fill their bounds
+         */
+        public int getWidth() {
+            return width;
+        }
+
+        /**
+         * @return the intrinsic height of the drawables, -1 when they fill their bounds
+         */
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * @return the key of the bitmap of a drawable of this style, with the layout resolved for
+         * its bounds, as the intrinsic size of the style also sizes and places the text
+         */
+        TextDrawableRenderCache.RenderKey getRenderKey(String text, int color, int width,
+                                                       int height, int fontSize, float textX,
+                                                       float textY) {
+            return new TextDrawableRenderCache.RenderKey(text, color, textColor, shapeKind,
+                    radius, width, height, fontSize, textX, textY, font, bold, borderThickness);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Template)) {
+                return false;
+            }
+            Template other = (Template) o;
+            return shapeKind == other.shapeKind
+                    && Float.compare(radius, other.radius) == 0
+                    && width == other.width
+                    && height == other.height
+                    && textColor == other.textColor
+                    && fontSize == other.fontSize
+                    && bold == other.bold
+                    && toUpperCase == other.toUpperCase
+                    && borderThickness == other.borderThickness
+                    && useRenderCache == other.useRenderCache
+                    && (font == null ? other.font == null : font.equals(other.font));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = shapeKind;
+            result = 31 * result + Float.floatToIntBits(radius);
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + textColor;
+            result = 31 * result + (font == null ? 0 : font.hashCode());
+            result = 31 * result + fontSize;
+            result = 31 * result + (bold ? 1 : 0);
+            result = 31 * result + (toUpperCase ? 1 : 0);
+            result = 31 * result + borderThickness;
+            result = 31 * result + (useRenderCache ? 1 : 0);
+            return result;
+        }
+    }
+
     @SuppressWarnings("UnusedReturnValue")
     public interface IShapeBuilder {
 
@@ -189,26 +534,22 @@ public final class TextDrawable extends ShapeDrawable {
 
         private int mTextColor;
         float mDrawableRadius;
-        private String mDrawableText;
-        private int color;
         private int borderThickness;
         private int width;
         private int height;
         private Typeface font;
-        private RectShape shape;
+        private int shapeKind;
         private int fontSize;
         private boolean isBold;
         private boolean toUpperCase;
 
         private Builder() {
-            mDrawableText = "";
-            color = Color.GRAY;
             mTextColor = Color.WHITE;
             borderThickness = 0;
             width = -1;
             height = -1;
-            shape = new RectShape();
-            font = Typeface.create("sans-serif-light", Typeface.NORMAL);
+            shapeKind = SHAPE_RECT;
+            font = TextDrawableStyles.getDefaultFont();
             fontSize = -1;
             isBold = false;
             toUpperCase = false;
@@ -266,21 +607,20 @@ public final class TextDrawable extends ShapeDrawable {
 
         @Override
         public IBuilder rect() {
-            this.shape = new RectShape();
+            this.shapeKind = SHAPE_RECT;
             return this;
         }
 
         @Override
         public IBuilder round() {
-            this.shape = new OvalShape();
+            this.shapeKind = SHAPE_ROUND;
             return this;
         }
 
         @Override
         public IBuilder roundRect(int radius) {
             this.mDrawableRadius = radius;
-            float[] radii = {radius, radius, radius, radius, radius, radius, radius, radius};
-            this.shape = new RoundRectShape(radii, null, null);
+            this.shapeKind = SHAPE_ROUND_RECT;
             return this;
         }
 
@@ -304,9 +644,11 @@ public final class TextDrawable extends ShapeDrawable {
 
         @Override
         public TextDrawable build(String text, int color) {
-            this.color = color;
-            this.mDrawableText = text;
-            return new TextDrawable(this);
+            return toTemplate().build(text, color);
+        }
+
+        Template toTemplate() {
+            return new Template(this);
         }
     }
 }
@@ -0,0 +1,262 @@
+package com.bharathksunil.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import timber.log.Timber;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Renders the bitmaps of batches of {@link TextDrawable}s on background threads, like for the
+ * avatars of the items of a list during prefetch, so that the main thread only draws bitmaps
+ * while flinging. The drawables are delivered to the main thread in the order of the batch, and
+ * their bitmaps are shared through the render cache when it is enabled by
+ * {@link TextDrawable#enableRenderCache(int)}, so that the drawables built later for the same
+ * text and style find them too.
+ * <br/>
+ * A delivered drawable draws its bitmap only while its bounds keep the target size, it may be
+ * moved but it renders itself again once resized. A drawable which cannot be built is skipped.
+ *
+ * @author Bharath
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class TextDrawablePrerenderer {
+
+    private static final long KEEP_ALIVE_SECONDS = 1;
+    /**
+     * The result of a drawable which could not be built, skipped by the delivery
+     */
+    private static final Object FAILED = new Object();
+
+    private final ThreadPoolExecutor executor;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    /**
+     * The batches which are neither delivered nor cancelled, to cancel them on shutdown
+     */
+    private final Set<Batch> batches =
+            Collections.newSetFromMap(new ConcurrentHashMap<Batch, Boolean>());
+
+    /**
+     * Receives the pre-rendered drawables of a batch
+     */
+    public interface Callback {
+        /**
+         * Called on the main thread for each drawable of the batch, in the order of the batch.
+         * The drawables which could not be built are skipped.
+         *
+         * @param index    the index of the drawable in the batch
+         * @param drawable the drawable, with its bounds set to the target size
+         */
+        @MainThread
+        void onPrerendered(int index, @NonNull TextDrawable drawable);
+    }
+
+    /**
+     * @param parallelism the maximum number of drawables rendered at the same time
+     */
+    public TextDrawablePrerenderer(final int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        executor = new ThreadPoolExecutor(parallelism, parallelism,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(@NonNull final Runnable runnable) {
+                        return new Thread(new Runnable() {
+                            @Override
+                            public void run() {
+                                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                                runnable.run();
+                            }
+                        }, "TextDrawablePrerenderer-" + count.incrementAndGet());
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Builds and renders a drawable of the template for each text and color, and delivers them to
+     * the main thread in order.
+     *
+     * @param template the style of the drawables
+     * @param texts    the text of each drawable
+     * @param colors   the color of each drawable
+     * @param width    the target width of the drawables in pixels
+     * @param height   the target height of the drawables in pixels
+     * @param callback receives the drawables on the main thread
+     * @return the batch, to cancel it when its items are no longer needed
+     * @throws IllegalStateException if the prerenderer is shut down
+     */
+    @NonNull
+    public Batch prerender(@NonNull final TextDrawable.Template template,
+                           @NonNull final List<String> texts,
+                           @NonNull final int[] colors,
+                           final int width,
+                           final int height,
+                           @NonNull final Callback callback) {
+        requireNonNull(template);
+        requireNonNull(callback);
+        if (texts.size() != colors.length) {
+            throw new IllegalArgumentException("texts and colors must have the same size");
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("width and height must be positive");
+        }
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("The prerenderer is shut down");
+        }
+        final Batch batch = new Batch(new ArrayList<>(texts), colors.clone(), callback, batches);
+        if (batch.texts.isEmpty()) {
+            return batch;
+        }
+        batches.add(batch);
+        try {
+            submit(batch, template, width, height);
+        } catch (RejectedExecutionException e) {
+            // shut down by another thread while submitting, the submitted items are dropped
+            batch.cancel();
+            throw new IllegalStateException("The prerenderer is shut down", e);
+        }
+        return batch;
+    }
+
+    private void submit(@NonNull final Batch batch,
+                        @NonNull final TextDrawable.Template template,
+                        final int width,
+                        final int height) {
+        for (int i = 0; i < batch.texts.size(); i++) {
+            final int index = i;
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (batch.cancelled) {
+                        return;
+                    }
+                    TextDrawable drawable = null;
+                    try {
+                        drawable = template.build(batch.texts.get(index), batch.colors[index]);
+                        drawable.setBounds(0, 0, width, height);
+                        drawable.prerender();
+                    } catch (RuntimeException e) {
+                        // a drawable that was built still draws itself without the bitmap
+                        Timber.e(e, "Failed to pre-render a TextDrawable");
+                    }
+                    // the slot is always filled, so that the drawables after it are delivered
+                    batch.results.set(index, drawable != null ? drawable : FAILED);
+                    handler.post(batch.deliver);
+                }
+            });
+        }
+    }
+
+    /**
+     * Cancels the batches which are not delivered yet and stops the threads, the prerenderer
+     * cannot be used after: {@link #prerender} throws an {@link IllegalStateException}.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        for (Batch batch : batches) {
+            batch.cancel();
+        }
+    }
+
+    /**
+     * A batch of drawables being pre-rendered, it delivers the rendered drawables to the main
+     * thread as soon as all the drawables before them are delivered.
+     */
+    public static final class Batch {
+        private final List<String> texts;
+        private final int[] colors;
+        private final Callback callback;
+        /**
+         * The live batches of the prerenderer, the batch leaves it once delivered or cancelled
+         */
+        private final Set<Batch> live;
+        /**
+         * The built drawables, or {@link #FAILED}, until they are delivered
+         */
+        private final AtomicReferenceArray<Object> results;
+        private volatile boolean cancelled;
+        /**
+         * The index of the next drawable to deliver, only used on the main thread
+         */
+        private int next;
+        private final Runnable deliver = new Runnable() {
+            @Override
+            public void run() {
+                deliver();
+            }
+        };
+
+        private Batch(@NonNull final List<String> texts,
+                      @NonNull final int[] colors,
+                      @NonNull final Callback callback,
+                      @NonNull final Set<Batch> live) {
+            this.texts = texts;
+            this.colors = colors;
+            this.callback = callback;
+            this.live = live;
+            this.results = new AtomicReferenceArray<>(texts.size());
+        }
+
+        /**
+         * Stops rendering and delivering the drawables of the batch that are not delivered yet.
+         */
+        public void cancel() {
+            cancelled = true;
+            live.remove(this);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * @return true if all the drawables of the batch are delivered or skipped, a batch
+         * cancelled before that is never done
+         */
+        @MainThread
+        public boolean isDone() {
+            return next == results.length();
+        }
+
+        @MainThread
+        private void deliver() {
+            while (!cancelled && next < results.length()) {
+                Object result = results.get(next);
+                if (result == null) {
+                    return;
+                }
+                results.set(next, null);
+                if (result == FAILED) {
+                    next++;
+                } else {
+                    callback.onPrerendered(next++, (TextDrawable) result);
+                }
+            }
+            if (isDone()) {
+                live.remove(this);
+            }
+        }
+    }
+}
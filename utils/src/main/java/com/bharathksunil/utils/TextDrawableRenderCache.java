@@ -0,0 +1,153 @@
+package com.bharathksunil.utils;
+
+import android.graphics.Bitmap;
+import android.graphics.Typeface;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.LruCache;
+
+/**
+ * The bitmaps of the {@link TextDrawable}s rendered in the cached mode, shared by all of them.
+ * Each unique combination of text, colors, shape, size, font and border is rendered only once,
+ * the least recently used bitmaps are evicted when their total size exceeds the maximum.
+ * <br/>
+ * An evicted bitmap is never drawn into again, as a drawable or a display list may still be
+ * showing it, it is collected once no drawable holds it.
+ *
+ * @author Bharath
+ */
+final class TextDrawableRenderCache {
+
+    private final LruCache<RenderKey, Bitmap> bitmaps;
+
+    /**
+     * @param maxBytes the maximum total size of the bitmaps in bytes
+     */
+    TextDrawableRenderCache(final int maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.bitmaps = new LruCache<RenderKey, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(RenderKey key, Bitmap bitmap) {
+                return bitmap.getByteCount();
+            }
+        };
+    }
+
+    @Nullable
+    Bitmap get(@NonNull final RenderKey key) {
+        return bitmaps.get(key);
+    }
+
+    void put(@NonNull final RenderKey key, @NonNull final Bitmap bitmap) {
+        bitmaps.put(key, bitmap);
+    }
+
+    void clear() {
+        bitmaps.evictAll();
+    }
+
+    /**
+     * @return the stats of the cache, its size and maximum size are in bytes
+     */
+    @NonNull
+    CacheStats getStats() {
+        return new CacheStats(bitmaps.hitCount(), bitmaps.missCount(), bitmaps.evictionCount(),
+                bitmaps.size(), bitmaps.maxSize());
+    }
+
+    /**
+     * Everything that makes up the rendered bitmap of a {@link TextDrawable}: the size of its
+     * bounds, its style and the layout of its text resolved for the bounds
+     */
+    static final class RenderKey {
+        private final String text;
+        private final int color;
+        private final int textColor;
+        private final int shape;
+        private final float radius;
+        private final int width;
+        private final int height;
+        private final int fontSize;
+        private final float textX;
+        private final float textY;
+        @Nullable
+        private final Typeface font;
+        private final boolean bold;
+        private final int borderThickness;
+        private final int hashCode;
+
+        RenderKey(@NonNull final String text,
+                  final int color,
+                  final int textColor,
+                  final int shape,
+                  final float radius,
+                  final int width,
+                  final int height,
+                  final int fontSize,
+                  final float textX,
+                  final float textY,
+                  @Nullable final Typeface font,
+                  final boolean bold,
+                  final int borderThickness) {
+            this.text = text;
+            this.color = color;
+            this.textColor = textColor;
+            this.shape = shape;
+            this.radius = radius;
+            this.width = width;
+            this.height = height;
+            this.fontSize = fontSize;
+            this.textX = textX;
+            this.textY = textY;
+            this.font = font;
+            this.bold = bold;
+            this.borderThickness = borderThickness;
+            int result = text.hashCode();
+            result = 31 * result + color;
+            result = 31 * result + textColor;
+            result = 31 * result + shape;
+            result = 31 * result + Float.floatToIntBits(radius);
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + fontSize;
+            result = 31 * result + Float.floatToIntBits(textX);
+            result = 31 * result + Float.floatToIntBits(textY);
+            result = 31 * result + (font == null ? 0 : font.hashCode());
+            result = 31 * result + (bold ? 1 : 0);
+            result = 31 * result + borderThickness;
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RenderKey)) {
+                return false;
+            }
+            RenderKey other = (RenderKey) o;
+            return hashCode == other.hashCode
+                    && color == other.color
+                    && textColor == other.textColor
+                    && shape == other.shape
+                    && Float.compare(radius, other.radius) == 0
+                    && width == other.width
+                    && height == other.height
+                    && fontSize == other.fontSize
+                    && Float.compare(textX, other.textX) == 0
+                    && Float.compare(textY, other.textY) == 0
+                    && bold == other.bold
+                    && borderThickness == other.borderThickness
+                    && text.equals(other.text)
+                    && (font == null ? other.font == null : font.equals(other.font));
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.bharathksunil.utils;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.graphics.drawable.shapes.OvalShape;
+import android.graphics.drawable.shapes.RectShape;
+import android.graphics.drawable.shapes.RoundRectShape;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * The flyweight registry of the style objects shared by the {@link TextDrawable}s: the default
+ * typeface and the paints, so that a drawable holds little more than its text and a few ints.
+ * The paints must never be changed once shared, a drawable copies its text paint before changing
+ * its alpha or color filter. The shapes are not shared, as a shape is resized to the bounds of
+ * its drawable and handed out by {@link TextDrawable#getShape()}: each drawable has its own,
+ * created from the shape kind and radius of its template.
+ *
+ * @author Bharath
+ */
+final class TextDrawableStyles {
+
+    static final int SHAPE_RECT = 0;
+    static final int SHAPE_ROUND = 1;
+    static final int SHAPE_ROUND_RECT = 2;
+
+    private static final int MAX_PAINTS = 256;
+
+    private static final BoundedCache<PaintKey, Paint> PAINTS = new BoundedCache<>(MAX_PAINTS);
+
+    private TextDrawableStyles() {
+    }
+
+    /**
+     * Holds the default typeface, so that it is created only when first used
+     */
+    private static final class DefaultFont {
+        private static final Typeface FONT = Typeface.create("sans-serif-light", Typeface.NORMAL);
+    }
+
+    @NonNull
+    static Typeface getDefaultFont() {
+        return DefaultFont.FONT;
+    }
+
+    /**
+     * @param kind   one of the SHAPE_* constants
+     * @param radius the corner radius of {@link #SHAPE_ROUND_RECT}
+     * @return a new shape for a drawable
+     */
+    @NonNull
+    static RectShape newShape(final int kind, final float radius) {
+        switch (kind) {
+            case SHAPE_ROUND:
+                return new OvalShape();
+            case SHAPE_ROUND_RECT:
+                float[] radii = {radius, radius, radius, radius, radius, radius, radius, radius};
+                return new RoundRectShape(radii, null, null);
+            default:
+                return new RectShape();
+        }
+    }
+
+    /**
+     * @return the shared paint of the text, it must not be changed
+     */
+    @NonNull
+    static Paint getTextPaint(final int color,
+                              @Nullable final Typeface font,
+                              final boolean bold,
+                              final float textSize,
+                              final int strokeWidth) {
+        PaintKey key = new PaintKey(true, color, font, bold, textSize, strokeWidth);
+        Paint paint = PAINTS.get(key);
+        if (paint == null) {
+            paint = new Paint();
+            paint.setColor(color);
+            paint.setAntiAlias(true);
+            paint.setFakeBoldText(bold);
+            paint.setStyle(Paint.Style.FILL);
+            paint.setTypeface(font);
+            paint.setTextAlign(Paint.Align.CENTER);
+            paint.setStrokeWidth(strokeWidth);
+            paint.setTextSize(textSize);
+            PAINTS.put(key, paint);
+        }
+        return paint;
+    }
+
+    /**
+     * @return the shared paint of the border, it must not be changed
+     */
+    @NonNull
+    static Paint getBorderPaint(final int color, final int thickness) {
+        PaintKey key = new PaintKey(false, color, null, false, 0, thickness);
+        Paint paint = PAINTS.get(key);
+        if (paint == null) {
+            paint = new Paint();
+            paint.setColor(color);
+            paint.setStyle(Paint.Style.STROKE);
+            paint.setStrokeWidth(thickness);
+            PAINTS.put(key, paint);
+        }
+        return paint;
+    }
+
+    private static final class PaintKey {
+        private final boolean text;
+        private final int color;
+        @Nullable
+        private final Typeface font;
+        private final boolean bold;
+        private final float textSize;
+        private final int strokeWidth;
+
+        private PaintKey(final boolean text,
+                         final int color,
+                         @Nullable final Typeface font,
+                         final boolean bold,
+                         final float textSize,
+                         final int strokeWidth) {
+            this.text = text;
+            this.color = color;
+            this.font = font;
+            this.bold = bold;
+            this.textSize = textSize;
+            this.strokeWidth = strokeWidth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PaintKey)) {
+                return false;
+            }
+            PaintKey other = (PaintKey) o;
+            return text == other.text
+                    && color == other.color
+                    && bold == other.bold
+                    && Float.compare(textSize, other.textSize) == 0
+                    && strokeWidth == other.strokeWidth
+                    && (font == null ? other.font == null : font.equals(other.font));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = text ? 1 : 0;
+            result = 31 * result + color;
+            result = 31 * result + (font == null ? 0 : font.hashCode());
+            result = 31 * result + (bold ? 1 : 0);
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + strokeWidth;
+            return result;
+        }
+    }
+}
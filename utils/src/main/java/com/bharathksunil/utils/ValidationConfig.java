@@ -0,0 +1,290 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable set of validation rules: the password policy or regular expression, the email
+ * regular expression and the phone number regular expressions, with one per country if needed.
+ * Rules that are not set use the defaults of {@link ValidationUtil}.
+ * <br/>
+ * A config can be used directly from any thread, or installed for the whole app by
+ * {@link ValidationUtil#setConfig(ValidationConfig)}.
+ * <br/>
+ * <b>How to use:</b>
+ * <pre>
+ * ValidationConfig config = ValidationConfig.builder()
+ *         .passwordPolicy(PasswordPolicy.builder().mustHaveDigit().minimumLength(10).build())
+ *         .phoneNumberRegex("US", Pattern.compile("^[2-9]\\d{9}$"))
+ *         .build();
+ * config.isPhoneNumberValid(phone, "US");
+ * </pre>
+ *
+ * @author Bharath
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class ValidationConfig {
+
+    /**
+     * The default rules, see {@link ValidationUtil}
+     */
+    public static final ValidationConfig DEFAULT = builder().build();
+
+    @NonNull
+    private final PasswordPolicy passwordPolicy;
+    @Nullable
+    private final Pattern passwordRegex;
+    @Nullable
+    private final Pattern emailRegex;
+    @Nullable
+    private final Pattern phoneNumberRegex;
+    /**
+     * The phone number regular expressions by upper case ISO 3166 country code
+     */
+    @NonNull
+    private final Map<String, Pattern> phoneNumberRegexByCountry;
+
+    private ValidationConfig(@NonNull final Builder builder) {
+        this.passwordPolicy = builder.passwordPolicy;
+        this.passwordRegex = builder.passwordRegex;
+        this.emailRegex = builder.emailRegex;
+        this.phoneNumberRegex = builder.phoneNumberRegex;
+        this.phoneNumberRegexByCountry = builder.phoneNumberRegexByCountry.isEmpty()
+                ? Collections.<String, Pattern>emptyMap()
+                : Collections.unmodifiableMap(new HashMap<>(builder.phoneNumberRegexByCountry));
+    }
+
+    @NonNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return a builder with the rules of this config, to build a changed copy of it
+     */
+    @NonNull
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.passwordPolicy = passwordPolicy;
+        builder.passwordRegex = passwordRegex;
+        builder.emailRegex = emailRegex;
+        builder.phoneNumberRegex = phoneNumberRegex;
+        builder.phoneNumberRegexByCountry.putAll(phoneNumberRegexByCountry);
+        return builder;
+    }
+
+    @NonNull
+    public PasswordPolicy getPasswordPolicy() {
+        return passwordPolicy;
+    }
+
+    /**
+     * @return the password regular expression, used instead of the password policy when not null
+     */
+    @Nullable
+    public Pattern getPasswordRegex() {
+        return passwordRegex;
+    }
+
+    /**
+     * @return the email regular expression, null if the default rule is used
+     */
+    @Nullable
+    public Pattern getEmailRegex() {
+        return emailRegex;
+    }
+
+    /**
+     * @return the phone number regular expression, null if the default rule is used
+     */
+    @Nullable
+    public Pattern getPhoneNumberRegex() {
+        return phoneNumberRegex;
+    }
+
+    /**
+     * @param country the ISO 3166 country code
+     * @return the phone number regular expression of the country, null if there is none and
+     * {@link #getPhoneNumberRegex()} is used
+     */
+    @Nullable
+    public Pattern getPhoneNumberRegex(@NonNull final String country) {
+        return phoneNumberRegexByCountry.get(toCountryKey(country));
+    }
+
+    @NonNull
+    private static String toCountryKey(@NonNull final String country) {
+        return requireNonNull(country).toUpperCase(Locale.US);
+    }
+
+    /**
+     * @param email the email to be validated
+     * @return true, if the email is syntactically valid
+     */
+    public boolean isEmailValid(@NonNull final CharSequence email) {
+        requireNonNull(email);
+        if (emailRegex != null) {
+            return emailRegex.matcher(email).find();
+        }
+        return DefaultValidators.isEmailValid(email);
+    }
+
+    /**
+     * @param phone the phone number to be validated
+     * @return true, if the phone number is valid
+     */
+    public boolean isPhoneNumberValid(@NonNull final CharSequence phone) {
+        requireNonNull(phone);
+        if (phoneNumberRegex != null) {
+            return phoneNumberRegex.matcher(phone).find();
+        }
+        return DefaultValidators.isPhoneNumberValid(phone);
+    }
+
+    /**
+     * @param phone   the phone number to be validated
+     * @param country the ISO 3166 country code, like "IN"
+     * @return true, if the phone number is valid as per the rule of the country, or the default
+     * phone number rule if the country has none
+     */
+    public boolean isPhoneNumberValid(@NonNull final CharSequence phone,
+                                      @NonNull final String country) {
+        requireNonNull(phone);
+        Pattern regex = getPhoneNumberRegex(country);
+        if (regex != null) {
+            return regex.matcher(phone).find();
+        }
+        return isPhoneNumberValid(phone);
+    }
+
+    /**
+     * @param phone  the phone number to be validated
+     * @param locale the locale whose country the phone number belongs to
+     * @return true, if the phone number is valid, see {@link #isPhoneNumberValid(CharSequence,
+     * String)}
+     */
+    public boolean isPhoneNumberValid(@NonNull final CharSequence phone,
+                                      @NonNull final Locale locale) {
+        return isPhoneNumberValid(phone, locale.getCountry());
+    }
+
+    /**
+     * @param password the password to be validated
+     * @return true, if the password is strong as per the regular expression or the policy
+     */
+    public boolean isPasswordStrong(@NonNull final CharSequence password) {
+        requireNonNull(password);
+        if (passwordRegex != null) {
+            return passwordRegex.matcher(password).find();
+        }
+        return passwordPolicy.isSatisfiedBy(password);
+    }
+
+    /**
+     * @param password the password to be validated
+     * @return the rules of the password policy that the password fails
+     * @throws IllegalStateException if the password strength is a regular expression, as it
+     *                               cannot report the rules
+     */
+    @NonNull
+    public Set<PasswordRule> getFailedPasswordRules(@NonNull final CharSequence password) {
+        requireNonNull(password);
+        if (passwordRegex != null) {
+            throw new IllegalStateException("The password strength is a regular expression, "
+                    + "use a PasswordPolicy to get the failed rules");
+        }
+        return passwordPolicy.getFailedRules(password);
+    }
+
+    /**
+     * @param password the password to be rated
+     * @return the strength of the password, see {@link PasswordPolicy#getStrength(CharSequence)}
+     * @throws IllegalStateException if the password strength is a regular expression, as it
+     *                               cannot report the rules
+     */
+    @NonNull
+    public PasswordStrength getPasswordStrength(@NonNull final CharSequence password) {
+        requireNonNull(password);
+        if (passwordRegex != null) {
+            throw new IllegalStateException("The password strength is a regular expression, "
+                    + "use a PasswordPolicy to rate the password");
+        }
+        return passwordPolicy.getStrength(password);
+    }
+
+    public static final class Builder {
+        @NonNull
+        private PasswordPolicy passwordPolicy = PasswordPolicy.DEFAULT;
+        @Nullable
+        private Pattern passwordRegex;
+        @Nullable
+        private Pattern emailRegex;
+        @Nullable
+        private Pattern phoneNumberRegex;
+        private final Map<String, Pattern> phoneNumberRegexByCountry = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the password policy, this replaces any password regular expression
+         */
+        @NonNull
+        public Builder passwordPolicy(@NonNull final PasswordPolicy policy) {
+            this.passwordPolicy = requireNonNull(policy);
+            this.passwordRegex = null;
+            return this;
+        }
+
+        /**
+         * Sets the password regular expression, used instead of the password policy
+         */
+        @NonNull
+        public Builder passwordRegex(@NonNull final Pattern pattern) {
+            this.passwordRegex = requireNonNull(pattern);
+            return this;
+        }
+
+        @NonNull
+        public Builder emailRegex(@NonNull final Pattern pattern) {
+            this.emailRegex = requireNonNull(pattern);
+            return this;
+        }
+
+        /**
+         * Sets the phone number regular expression for the countries without one of their own
+         */
+        @NonNull
+        public Builder phoneNumberRegex(@NonNull final Pattern pattern) {
+            this.phoneNumberRegex = requireNonNull(pattern);
+            return this;
+        }
+
+        /**
+         * Sets the phone number regular expression of a country
+         *
+         * @param country the ISO 3166 country code, like "IN"
+         * @param pattern the phone number regular expression
+         */
+        @NonNull
+        public Builder phoneNumberRegex(@NonNull final String country,
+                                        @NonNull final Pattern pattern) {
+            phoneNumberRegexByCountry.put(toCountryKey(country), requireNonNull(pattern));
+            return this;
+        }
+
+        @NonNull
+        public ValidationConfig build() {
+            return new ValidationConfig(this);
+        }
+    }
+}
@@ -2,7 +2,12 @@ package com.bharathksunil.utils;
 
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.annotation.RequiresApi;
 
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static java.util.Objects.requireNonNull;
@@ -22,11 +27,11 @@ public final class ValidationUtil {
     /**
      * a lower case letter must occur at least once
      */
-    public static final String MUST_HAVE_LOWER_CASE_ALPHA = "(?=.*[0-9])";
+    public static final String MUST_HAVE_LOWER_CASE_ALPHA = "(?=.*[a-z])";
     /**
      * an upper case letter must occur at least once
      */
-    public static final String MUST_HAVE_UPPER_CASE_ALPHA = "(?=.*[a-z])";
+    public static final String MUST_HAVE_UPPER_CASE_ALPHA = "(?=.*[A-Z])";
     /**
      * a special character must occur at least once
      */
@@ -43,49 +48,101 @@ public final class ValidationUtil {
 
     //region Regular Expressions & their Setters
     /**
-     * Regular expression for Password Strength validation , default modules:<br/>
+     * The rules in use, defaults:<br/>
+     * Password Strength, by {@link PasswordPolicy#DEFAULT}:<br/>
      * # a digit must occur at least once<br/>
      * # a lower case letter must occur at least once<br/>
      * # no whitespace allowed in the entire string<br/>
      * # anything, at least eight places though<br/>
-     * Set this for your app by calling the {@link #setPasswordStrength(String)} function in your
-     * Application Class.
-     */
-    private static Pattern validPasswordRegex = Pattern.compile(
-            "^"
-                    + MUST_HAVE_DIGIT
-                    + MUST_HAVE_LOWER_CASE_ALPHA
-                    + MUST_NOT_HAVE_WHITE_SPACES
-                    + MUST_HAVE_MINIMAL_8_CHAR
-                    + "$"
-    );
-
-    /**
-     * Phone number Validation Regular Expression to check if
+     * Phone number, checked by {@link DefaultValidators#isPhoneNumberValid(CharSequence)}, which
+     * is equivalent to:
      * ^                # start-of-string
      * [6789]           # contains 6 or 7 or 8 or 9
      * \\d{9}           # contains other 9 digits
      * $                # end-of-string
+     * Email Id, checked by {@link DefaultValidators#isEmailValid(CharSequence)}, which is
+     * equivalent to:
+     * ^[_A-Za-z0-9-+]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9-]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$
+     * <br/>
+     * The config is immutable and replaced as a whole by the setters, so validation on any thread
+     * reads it without locking and always sees a consistent set of rules. Set the rules for your
+     * app by calling {@link #setConfig(ValidationConfig)} or the setters in your Application Class.
      */
-    private static Pattern validPhoneNumberRegex = Pattern.compile("^[6789]\\d{9}$");
+    @NonNull
+    private static volatile ValidationConfig config = ValidationConfig.DEFAULT;
 
     /**
-     * Email Id Validation Regular Expression to validate an email ID
+     * @return the rules in use, a snapshot that is not changed by the setters
      */
-    private static Pattern validEmailAddressRegex = Pattern.compile(
-            "^[_A-Za-z0-9-+]+(\\.[_A-Za-z0-9-]+)*@" +
-                    "[A-Za-z0-9-]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$",
-            Pattern.CASE_INSENSITIVE
-    );
+    @NonNull
+    public static ValidationConfig getConfig() {
+        return config;
+    }
 
     /**
-     * Call this method to set the password strength that is required
+     * Call this method to replace all the rules at once
+     *
+     * @param validationConfig the rules
+     */
+    public static void setConfig(@NonNull final ValidationConfig validationConfig) {
+        requireNonNull(validationConfig);
+        synchronized (ValidationUtil.class) {
+            config = validationConfig;
+        }
+    }
+
+    /**
+     * The setters copy the config with a single change, under the lock so that concurrent setters
+     * do not lose each other's changes
+     */
+    private interface ConfigChange {
+        void apply(@NonNull ValidationConfig.Builder builder);
+    }
+
+    private static void updateConfig(@NonNull final ConfigChange change) {
+        synchronized (ValidationUtil.class) {
+            ValidationConfig.Builder builder = config.toBuilder();
+            change.apply(builder);
+            config = builder.build();
+        }
+    }
+
+    /**
+     * Call this method to set the rules the password must satisfy, they are checked in a single
+     * pass over the password. This replaces any regular expression set by
+     * {@link #setPasswordStrength(String)}.
+     *
+     * @param policy the password policy
+     */
+    public static void setPasswordPolicy(@NonNull final PasswordPolicy policy) {
+        requireNonNull(policy);
+        updateConfig(new ConfigChange() {
+            @Override
+            public void apply(@NonNull ValidationConfig.Builder builder) {
+                builder.passwordPolicy(policy);
+            }
+        });
+    }
+
+    /**
+     * @return the password policy in use, it is not used while a regular expression set by
+     * {@link #setPasswordStrength(String)} is in use
+     */
+    @NonNull
+    public static PasswordPolicy getPasswordPolicy() {
+        return config.getPasswordPolicy();
+    }
+
+    /**
+     * Call this method to set the password strength that is required. Prefer
+     * {@link #setPasswordPolicy(PasswordPolicy)} when the rules are the MUST_* constants, as
+     * each of them is a separate scan of the password in a regular expression.
      *
      * @param regex the regular Expression
      */
     public static void setPasswordStrength(@NonNull final String regex) {
         requireNonNull(regex);
-        validPasswordRegex = Pattern.compile(regex);
+        setPasswordStrength(Pattern.compile(regex));
     }
 
     /**
@@ -95,7 +152,12 @@ public final class ValidationUtil {
      */
     public static void setPasswordStrength(@NonNull final Pattern pattern) {
         requireNonNull(pattern);
-        validPasswordRegex = pattern;
+        updateConfig(new ConfigChange() {
+            @Override
+            public void apply(@NonNull ValidationConfig.Builder builder) {
+                builder.passwordRegex(pattern);
+            }
+        });
     }
 
     /**
@@ -105,7 +167,7 @@ public final class ValidationUtil {
      */
     public static void setValidPhoneNumberRegex(@NonNull final String regex) {
         requireNonNull(regex);
-        validPhoneNumberRegex = Pattern.compile(regex);
+        setValidPhoneNumberRegex(Pattern.compile(regex));
     }
 
     /**
@@ -115,7 +177,31 @@ public final class ValidationUtil {
      */
     public static void setValidPhoneNumberRegex(@NonNull final Pattern pattern) {
         requireNonNull(pattern);
-        validPhoneNumberRegex = pattern;
+        updateConfig(new ConfigChange() {
+            @Override
+            public void apply(@NonNull ValidationConfig.Builder builder) {
+                builder.phoneNumberRegex(pattern);
+            }
+        });
+    }
+
+    /**
+     * Call this method to set the phone number validation pattern of a country, used by
+     * {@link #isPhoneNumberValid(CharSequence, String)}
+     *
+     * @param country the ISO 3166 country code, like "IN"
+     * @param pattern the pattern for phone number validation
+     */
+    public static void setValidPhoneNumberRegex(@NonNull final String country,
+                                                @NonNull final Pattern pattern) {
+        requireNonNull(country);
+        requireNonNull(pattern);
+        updateConfig(new ConfigChange() {
+            @Override
+            public void apply(@NonNull ValidationConfig.Builder builder) {
+                builder.phoneNumberRegex(country, pattern);
+            }
+        });
     }
 
     /**
@@ -125,7 +211,7 @@ public final class ValidationUtil {
      */
     public static void setValidEmailAddressRegex(@NonNull final String regex) {
         requireNonNull(regex);
-        validEmailAddressRegex = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+        setValidEmailAddressRegex(Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
     }
 
     /**
@@ -135,7 +221,12 @@ public final class ValidationUtil {
      */
     public static void setValidEmailAddressRegex(@NonNull final Pattern pattern) {
         requireNonNull(pattern);
-        validEmailAddressRegex = pattern;
+        updateConfig(new ConfigChange() {
+            @Override
+            public void apply(@NonNull ValidationConfig.Builder builder) {
+                builder.emailRegex(pattern);
+            }
+        });
     }
     //endregion
 
@@ -146,8 +237,7 @@ public final class ValidationUtil {
      * @return true, if the email is syntactically valid
      */
     public static boolean isEmailValid(@NonNull final CharSequence email) {
-        requireNonNull(email);
-        return validEmailAddressRegex.matcher(email).find();
+        return config.isEmailValid(email);
     }
 
     /**
@@ -158,24 +248,249 @@ public final class ValidationUtil {
      * @return true, if the phone number is valid
      */
     public static boolean isPhoneNumberValid(@NonNull final CharSequence phone) {
-        requireNonNull(phone);
-        return validPhoneNumberRegex.matcher(phone).find();
+        return config.isPhoneNumberValid(phone);
+    }
+
+    /**
+     * It checks if the phone number is valid in the country, as per the pattern set by
+     * {@link #setValidPhoneNumberRegex(String, Pattern)}, or the phone number rule of
+     * {@link #isPhoneNumberValid(CharSequence)} if the country has none.
+     *
+     * @param phone   the phone number to be validated
+     * @param country the ISO 3166 country code, like "IN"
+     * @return true, if the phone number is valid
+     */
+    public static boolean isPhoneNumberValid(@NonNull final CharSequence phone,
+                                             @NonNull final String country) {
+        return config.isPhoneNumberValid(phone, country);
     }
 
     /**
      * It checks if the password matches these criteria to ensure a strong password
      * C1: Contains 8 characters
      * C2: Contains minimum one digit
-     * C3: Contains one Special Character
+     * C3: Contains minimum one lower case letter
+     * C4: Contains no whitespace
+     * These can be changed by {@link #setPasswordPolicy(PasswordPolicy)}.
      *
      * @param password the password to be validated
      * @return true, if the password is strong and matches all criteria
      */
     public static boolean isPasswordStrong(@NonNull final CharSequence password) {
-        requireNonNull(password);
-        return validPasswordRegex.matcher(password).find();
+        return config.isPasswordStrong(password);
+    }
+
+    /**
+     * Call this method to get the criteria of the password policy the password fails, like to
+     * show hints for each of them as the user types.
+     *
+     * @param password the password to be validated
+     * @return the rules that the password fails, empty if the password is strong
+     * @throws IllegalStateException if a regular expression was set with
+     *                               {@link #setPasswordStrength(String)}, as it cannot report the
+     *                               rules
+     */
+    @NonNull
+    public static Set<PasswordRule> getFailedPasswordRules(@NonNull final CharSequence password) {
+        return config.getFailedPasswordRules(password);
+    }
+
+    /**
+     * Call this method to rate the password for a live strength meter, see
+     * {@link PasswordStrength}.
+     *
+     * @param password the password to be rated
+     * @return the strength of the password
+     * @throws IllegalStateException if a regular expression was set with
+     *                               {@link #setPasswordStrength(String)}, as it cannot report the
+     *                               rules
+     */
+    @NonNull
+    public static PasswordStrength getPasswordStrength(@NonNull final CharSequence password) {
+        return config.getPasswordStrength(password);
+    }
+
+    //region Bulk Validation
+    /**
+     * The accessor of the fields of a contact record, for {@link #validateContacts}
+     *
+     * @param <T> the type of the contact
+     */
+    public interface ContactFields<T> {
+        /**
+         * @return the email of the contact, null if it has none
+         */
+        @Nullable
+        CharSequence getEmail(@NonNull T contact);
+
+        /**
+         * @return the phone number of the contact, null if it has none
+         */
+        @Nullable
+        CharSequence getPhoneNumber(@NonNull T contact);
+    }
+
+    @NonNull
+    private static BatchValidator newBatchValidator() {
+        ValidationConfig current = config;
+        return new BatchValidator(current.getEmailRegex(), current.getPhoneNumberRegex());
     }
 
+    /**
+     * Call this method to validate a whole batch of emails, like an imported address book. A
+     * single matcher is reused for the batch.
+     *
+     * @param emails the emails to be validated, null emails are invalid
+     * @return the bitmap of the batch, the bit at the index of each valid email is set
+     */
+    @NonNull
+    public static BitSet validateEmails(@NonNull final Iterable<? extends CharSequence> emails) {
+        requireNonNull(emails);
+        Matcher matcher = newBatchValidator().newEmailMatcher();
+        BitSet valid = new BitSet();
+        int index = 0;
+        for (CharSequence email : emails) {
+            if (BatchValidator.isEmailValid(matcher, email)) {
+                valid.set(index);
+            }
+            index++;
+        }
+        BatchValidator.release(matcher);
+        return valid;
+    }
+
+    /**
+     * Call this method to validate a whole batch of emails, split across the cores when the batch
+     * is large
+     *
+     * @param emails the emails to be validated, null emails are invalid
+     * @return the bitmap of the batch, the bit at the index of each valid email is set
+     */
+    @RequiresApi(21)
+    @NonNull
+    public static BitSet validateEmailsInParallel(
+            @NonNull final List<? extends CharSequence> emails) {
+        return validateInParallel(emails, true);
+    }
+
+    /**
+     * Call this method to validate a whole batch of phone numbers, like an imported address book.
+     * A single matcher is reused for the batch.
+     *
+     * @param phones the phone numbers to be validated, null phone numbers are invalid
+     * @return the bitmap of the batch, the bit at the index of each valid phone number is set
+     */
+    @NonNull
+    public static BitSet validatePhoneNumbers(
+            @NonNull final Iterable<? extends CharSequence> phones) {
+        requireNonNull(phones);
+        Matcher matcher = newBatchValidator().newPhoneNumberMatcher();
+        BitSet valid = new BitSet();
+        int index = 0;
+        for (CharSequence phone : phones) {
+            if (BatchValidator.isPhoneNumberValid(matcher, phone)) {
+                valid.set(index);
+            }
+            index++;
+        }
+        BatchValidator.release(matcher);
+        return valid;
+    }
+
+    /**
+     * Call this method to validate a whole batch of phone numbers, split across the cores when the
+     * batch is large
+     *
+     * @param phones the phone numbers to be validated, null phone numbers are invalid
+     * @return the bitmap of the batch, the bit at the index of each valid phone number is set
+     */
+    @RequiresApi(21)
+    @NonNull
+    public static BitSet validatePhoneNumbersInParallel(
+            @NonNull final List<? extends CharSequence> phones) {
+        return validateInParallel(phones, false);
+    }
+
+    @RequiresApi(21)
+    @NonNull
+    private static BitSet validateInParallel(@NonNull final List<? extends CharSequence> values,
+                                             final boolean email) {
+        requireNonNull(values);
+        final BatchValidator validator = newBatchValidator();
+        final long[] words = new long[(values.size() + 63) >>> 6];
+        ParallelBatch.run(values.size(), 64, new ParallelBatch.RangeTask() {
+            @Override
+            public int run(int from, int to) {
+                return validator.validate(values, email, from, to, words);
+            }
+        });
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Call this method to validate the email and phone number of a whole batch of contacts. The
+     * bitmap has two bits per contact: the bit at 2 * index is set if the email of the contact is
+     * valid and the bit at 2 * index + 1 if its phone number is valid.
+     *
+     * @param contacts the contacts to be validated
+     * @param fields   the accessor of the email and phone number of a contact
+     * @return the bitmap of the batch
+     */
+    @NonNull
+    public static <T> BitSet validateContacts(@NonNull final Iterable<T> contacts,
+                                              @NonNull final ContactFields<? super T> fields) {
+        requireNonNull(contacts);
+        requireNonNull(fields);
+        BatchValidator validator = newBatchValidator();
+        Matcher emailMatcher = validator.newEmailMatcher();
+        Matcher phoneNumberMatcher = validator.newPhoneNumberMatcher();
+        BitSet valid = new BitSet();
+        int bit = 0;
+        for (T contact : contacts) {
+            if (BatchValidator.isEmailValid(emailMatcher, fields.getEmail(contact))) {
+                valid.set(bit);
+            }
+            if (BatchValidator.isPhoneNumberValid(phoneNumberMatcher,
+                    fields.getPhoneNumber(contact))) {
+                valid.set(bit + 1);
+            }
+            bit += BatchValidator.CONTACT_BITS;
+        }
+        BatchValidator.release(emailMatcher);
+        BatchValidator.release(phoneNumberMatcher);
+        return valid;
+    }
+
+    /**
+     * Call this method to validate the email and phone number of a whole batch of contacts, split
+     * across the cores when the batch is large. The bitmap is the same as of
+     * {@link #validateContacts(Iterable, ContactFields)}.
+     *
+     * @param contacts the contacts to be validated
+     * @param fields   the accessor of the email and phone number of a contact, called from
+     *                 several threads
+     * @return the bitmap of the batch
+     */
+    @RequiresApi(21)
+    @NonNull
+    public static <T> BitSet validateContactsInParallel(
+            @NonNull final List<T> contacts,
+            @NonNull final ContactFields<? super T> fields) {
+        requireNonNull(contacts);
+        requireNonNull(fields);
+        final BatchValidator validator = newBatchValidator();
+        final long[] words = new long[(contacts.size() * BatchValidator.CONTACT_BITS + 63) >>> 6];
+        ParallelBatch.run(contacts.size(), 64 / BatchValidator.CONTACT_BITS,
+                new ParallelBatch.RangeTask() {
+                    @Override
+                    public int run(int from, int to) {
+                        return validator.validateContacts(contacts, fields, from, to, words);
+                    }
+                });
+        return BitSet.valueOf(words);
+    }
+    //endregion
+
     /**
      * Call this method to check if the two strings are equal
      *
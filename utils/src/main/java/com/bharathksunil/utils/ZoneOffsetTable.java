@@ -0,0 +1,165 @@
+package com.bharathksunil.utils;
+
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The UTC offsets of a timezone, precomputed from the start of the last year till the end of the
+ * next year so that the offset of any time in that window is a lookup in a short table instead of
+ * a call into the {@link TimeZone}. Times outside the window are answered by the timezone itself.
+ * Instances are immutable and thread safe.
+ *
+ * @author Bharath
+ */
+final class ZoneOffsetTable {
+
+    /**
+     * Returned by {@link #toUtc(long)} when the local time does not exist or is ambiguous
+     */
+    static final long AMBIGUOUS = Long.MIN_VALUE;
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    /**
+     * The timezone is sampled at this interval to find the transitions, no timezone changes its
+     * offset twice within it.
+     */
+    private static final long SCAN_STEP = TimeUnit.HOURS.toMillis(12);
+
+    private final TimeZone timeZone;
+    private final long windowStart;
+    private final long windowEnd;
+    /**
+     * The times at which the offset changes, offsets[i] is in effect from transitions[i - 1] till
+     * transitions[i].
+     */
+    private final long[] transitions;
+    private final int[] offsets;
+
+    private ZoneOffsetTable(@NonNull final TimeZone timeZone,
+                            final long windowStart,
+                            final long windowEnd,
+                            @NonNull final long[] transitions,
+                            @NonNull final int[] offsets) {
+        this.timeZone = timeZone;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.transitions = transitions;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Builds the table of the timezone around the current year
+     *
+     * @param timeZone the timezone, it is copied
+     * @param now      the current time in milliseconds since epoch
+     * @return the table of the timezone
+     */
+    @NonNull
+    static ZoneOffsetTable create(@NonNull final TimeZone timeZone, final long now) {
+        TimeZone zone = (TimeZone) requireNonNull(timeZone).clone();
+        Calendar calendar = new GregorianCalendar(zone);
+        calendar.setTimeInMillis(now);
+        int year = calendar.get(Calendar.YEAR);
+        calendar.clear();
+        calendar.set(year - 1, Calendar.JANUARY, 1);
+        long windowStart = calendar.getTimeInMillis() - DAY;
+        calendar.set(year + 2, Calendar.JANUARY, 1);
+        long windowEnd = calendar.getTimeInMillis() + DAY;
+
+        long[] transitions = new long[8];
+        int[] offsets = new int[9];
+        int count = 0;
+        offsets[0] = zone.getOffset(windowStart);
+        for (long time = windowStart; time < windowEnd; time += SCAN_STEP) {
+            long next = Math.min(time + SCAN_STEP, windowEnd);
+            int offset = zone.getOffset(next);
+            if (offset == offsets[count]) {
+                continue;
+            }
+            // binary search for the first millisecond with the new offset
+            long low = time;
+            long high = next;
+            while (high - low > 1) {
+                long middle = (low + high) >>> 1;
+                if (zone.getOffset(middle) == offset) {
+                    high = middle;
+                } else {
+                    low = middle;
+                }
+            }
+            if (count == transitions.length) {
+                transitions = Arrays.copyOf(transitions, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2 + 1);
+            }
+            transitions[count] = high;
+            offsets[++count] = offset;
+        }
+        return new ZoneOffsetTable(zone, windowStart, windowEnd,
+                Arrays.copyOf(transitions, count), Arrays.copyOf(offsets, count + 1));
+    }
+
+    /**
+     * @return the timezone of this table, it must not be modified
+     */
+    @NonNull
+    TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    /**
+     * Call this method to get the offset from UTC of the timezone at the time
+     *
+     * @param utc the milliseconds since epoch
+     * @return the offset in milliseconds, to be added to UTC to get the local time
+     */
+    int getOffset(final long utc) {
+        if (utc < windowStart || utc >= windowEnd) {
+            return timeZone.getOffset(utc);
+        }
+        int index = 0;
+        while (index < transitions.length && transitions[index] <= utc) {
+            index++;
+        }
+        return offsets[index];
+    }
+
+    /**
+     * Call this method to convert a local time of the timezone to UTC.
+     *
+     * @param local the local time, as milliseconds since the epoch of the local clock
+     * @return the milliseconds since epoch, or {@link #AMBIGUOUS} if the local time is skipped or
+     * repeated by a transition, or is close to one outside the window
+     */
+    long toUtc(final long local) {
+        if (local - DAY < windowStart || local + DAY >= windowEnd) {
+            int offset = timeZone.getOffset(local - timeZone.getRawOffset());
+            long utc = local - offset;
+            if (timeZone.getOffset(utc) != offset
+                    || timeZone.getOffset(utc - DAY) != offset
+                    || timeZone.getOffset(utc + DAY) != offset) {
+                return AMBIGUOUS;
+            }
+            return utc;
+        }
+        long result = AMBIGUOUS;
+        for (int i = 0; i < offsets.length; i++) {
+            long utc = local - offsets[i];
+            boolean afterStart = i == 0 || utc >= transitions[i - 1];
+            boolean beforeEnd = i == transitions.length || utc < transitions[i];
+            if (afterStart && beforeEnd) {
+                if (result != AMBIGUOUS) {
+                    return AMBIGUOUS;
+                }
+                result = utc;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,31 @@
+package com.bharathksunil.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the binary search of {@link CommonPasswords}.
+ */
+public class CommonPasswordsTest {
+
+    @Test
+    public void contains_findsCommonPasswordsIgnoringAsciiCase() {
+        String[] passwords = {"000000", "123456", "password", "Password", "PASSWORD1", "p@ssw0rd",
+                "P@SSW0RD", "zxcvbnm", "qwertyuiop", "iloveyou"};
+        for (String password : passwords) {
+            assertTrue(password, CommonPasswords.contains(password));
+            assertTrue(password, CommonPasswords.contains(new StringBuilder(password)));
+        }
+    }
+
+    @Test
+    public void contains_rejectsOtherPasswords() {
+        String[] passwords = {"", "passwor", "passwords", "password12", "zzzzzzzz", "0",
+                "qwertyuiopasdfghjkl", "pass word", "\u0130loveyou", "passwor\u0257"};
+        for (String password : passwords) {
+            assertFalse(password, CommonPasswords.contains(password));
+        }
+    }
+}
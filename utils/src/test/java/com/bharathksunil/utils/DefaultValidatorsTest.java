@@ -0,0 +1,112 @@
+package com.bharathksunil.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the hand written {@link DefaultValidators} accept exactly what the original
+ * regular expressions of {@link ValidationUtil} accept.
+ */
+public class DefaultValidatorsTest {
+
+    private static final Pattern EMAIL = Pattern.compile(
+            "^[_A-Za-z0-9-+]+(\\.[_A-Za-z0-9-]+)*@" +
+                    "[A-Za-z0-9-]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$",
+            Pattern.CASE_INSENSITIVE
+    );
+    private static final Pattern PHONE_NUMBER = Pattern.compile("^[6789]\\d{9}$");
+    private static final String LABEL_ALPHABET = "abzABZ09_-+";
+    /**
+     * The characters mixed into the generated emails, the long s and the Kelvin sign only match
+     * [a-z] with Unicode case folding
+     */
+    private static final String EMAIL_ALPHABET = "aZ9.@-_+!\n\r"
+            + "\u0085\u2028\u2029\u017f\u212a\u00e9";
+    private static final String PHONE_ALPHABET = "0123456789999966667777888 +-a\n\r"
+            + "\u0085\u2028\u2029\u0660\uff10";
+    private static final int RANDOM_STRINGS = 1000000;
+
+    @Test
+    public void isEmailValid_matchesTheRegex() {
+        Random random = new Random(11);
+        int valid = 0;
+        for (int i = 0; i < RANDOM_STRINGS; i++) {
+            String email = randomEmail(random);
+            boolean expected = EMAIL.matcher(email).find();
+            assertEquals(email, expected, DefaultValidators.isEmailValid(email));
+            if (expected) {
+                valid++;
+            }
+        }
+        assertTrue("too few valid emails generated: " + valid, valid > 1000);
+    }
+
+    @Test
+    public void isPhoneNumberValid_matchesTheRegex() {
+        Random random = new Random(13);
+        int valid = 0;
+        for (int i = 0; i < RANDOM_STRINGS; i++) {
+            String phone = RandomStrings.ofLength(random, PHONE_ALPHABET, 8 + random.nextInt(5));
+            boolean expected = PHONE_NUMBER.matcher(phone).find();
+            assertEquals(phone, expected, DefaultValidators.isPhoneNumberValid(phone));
+            if (expected) {
+                valid++;
+            }
+        }
+        assertTrue("too few valid phone numbers generated: " + valid, valid > 1000);
+    }
+
+    @Test
+    public void isEmailValid_acceptsOneTrailingLineTerminator() {
+        String[] terminators = {"\n", "\r", "\r\n", "\u0085", "\u2028", "\u2029"};
+        for (String terminator : terminators) {
+            assertTrue(DefaultValidators.isEmailValid("john.doe@example.com" + terminator));
+            assertFalse(DefaultValidators.isEmailValid("john.doe@example.com" + terminator
+                    + terminator));
+            assertTrue(DefaultValidators.isPhoneNumberValid("9876543210" + terminator));
+        }
+    }
+
+    @Test
+    public void isEmailValid_rejectsNonAsciiCaseVariants() {
+        assertFalse(DefaultValidators.isEmailValid("john@example.co\u017f"));
+        assertFalse(DefaultValidators.isEmailValid("\u212aelvin@example.com"));
+        assertFalse(EMAIL.matcher("john@example.co\u017f").find());
+        assertFalse(EMAIL.matcher("\u212aelvin@example.com").find());
+    }
+
+    /**
+     * @return an email of random labels, with up to two random characters replaced or inserted
+     */
+    private static String randomEmail(Random random) {
+        StringBuilder email = new StringBuilder();
+        appendLabels(random, email);
+        email.append('@');
+        appendLabels(random, email);
+        for (int mutations = random.nextInt(3); mutations > 0; mutations--) {
+            char c = EMAIL_ALPHABET.charAt(random.nextInt(EMAIL_ALPHABET.length()));
+            int index = random.nextInt(email.length() + 1);
+            if (index < email.length() && random.nextBoolean()) {
+                email.setCharAt(index, c);
+            } else {
+                email.insert(index, c);
+            }
+        }
+        return email.toString();
+    }
+
+    private static void appendLabels(Random random, StringBuilder email) {
+        for (int labels = 1 + random.nextInt(3); labels > 0; labels--) {
+            email.append(RandomStrings.ofLength(random, LABEL_ALPHABET, 1 + random.nextInt(4)));
+            if (labels > 1) {
+                email.append('.');
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.bharathksunil.utils;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Cross checks the {@link FastDatePattern} against {@link SimpleDateFormat} for every day of a
+ * multi year range.
+ */
+public class FastDatePatternTest {
+
+    private static final String DEFAULT_PATTERN = "hh:mm:ss a, dd MMMM yyyy";
+    private static final String ISO_PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
+    private static final String ISO_MILLIS_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS";
+    private static final String[] ZONES = {"IST", "UTC", "America/New_York", "Europe/London"};
+    /**
+     * The offset tables are built around 2018, so that the range covers the times both inside and
+     * outside of their window.
+     */
+    private static final long TABLE_TIME = 1520000000000L;
+    private static final int[][] TIMES_OF_DAY = {
+            {0, 0, 0, 0}, {1, 30, 15, 123}, {2, 30, 0, 5}, {11, 59, 59, 999},
+            {12, 0, 0, 0}, {13, 45, 30, 500}, {23, 59, 59, 999}
+    };
+
+    @Test
+    public void defaultPattern_matchesSimpleDateFormat() throws ParseException {
+        for (String zone : ZONES) {
+            crossCheck(DEFAULT_PATTERN, Locale.US, TimeZone.getTimeZone(zone));
+        }
+        crossCheck(DEFAULT_PATTERN, Locale.UK, TimeZone.getTimeZone("IST"));
+    }
+
+    @Test
+    public void isoPatterns_matchSimpleDateFormat() throws ParseException {
+        for (String zone : ZONES) {
+            crossCheck(ISO_PATTERN, Locale.US, TimeZone.getTimeZone(zone));
+            crossCheck(ISO_MILLIS_PATTERN, Locale.US, TimeZone.getTimeZone(zone));
+        }
+    }
+
+    @Test
+    public void unsupportedPatterns_areNotCompiled() {
+        ZoneOffsetTable zone = ZoneOffsetTable.create(TimeZone.getTimeZone("UTC"), TABLE_TIME);
+        assertNull(FastDatePattern.compile("dd MMM yy", Locale.US, zone));
+        assertNull(FastDatePattern.compile("yyyy-MM-dd'T'HH:mm:ssZ", Locale.US, zone));
+        assertNull(FastDatePattern.compile("hh:mm", Locale.US, zone));
+        assertNull(FastDatePattern.compile("'unterminated", Locale.US, zone));
+    }
+
+    @Test
+    public void nonCanonicalInput_isLeftToSimpleDateFormat() {
+        FastDatePattern pattern = FastDatePattern.compile(DEFAULT_PATTERN, Locale.US,
+                ZoneOffsetTable.create(TimeZone.getTimeZone("IST"), TABLE_TIME));
+        assertNotNull(pattern);
+        assertEquals(FastDatePattern.FAILED, pattern.parse("1:35:59 AM, 12 March 2018"));
+        assertEquals(FastDatePattern.FAILED, pattern.parse("12:35:59 AM, 12 March 2018 "));
+        assertEquals(FastDatePattern.FAILED, pattern.parse("12:35:61 AM, 12 March 2018"));
+        assertEquals(FastDatePattern.FAILED, pattern.parse("12:35:59 AM, 30 February 2018"));
+        assertEquals(FastDatePattern.FAILED, pattern.parse("12:35:59 AM, 12 Marc 2018"));
+        assertEquals(FastDatePattern.FAILED, pattern.parse(""));
+    }
+
+    @Test
+    public void dateFormatter_alwaysMatchesSimpleDateFormat() throws ParseException {
+        TimeZone zone = TimeZone.getTimeZone("America/New_York");
+        DateFormatter formatter = new DateFormatter(DEFAULT_PATTERN, Locale.US,
+                ZoneOffsetTable.create(zone, TABLE_TIME));
+        SimpleDateFormat expected = new SimpleDateFormat(DEFAULT_PATTERN, Locale.US);
+        expected.setTimeZone(zone);
+        for (String text : new String[]{
+                "02:30:00 AM, 11 March 2018", "01:30:00 AM, 04 November 2018",
+                "02:30:00 AM, 08 March 2015", "01:30:00 AM, 01 November 2015",
+                "1:35:59 AM, 12 March 2018", "12:35:59 am, 12 march 2018"}) {
+            assertEquals(text, expected.parse(text).getTime(), formatter.parseMillis(text));
+        }
+    }
+
+    private static void crossCheck(String patternText, Locale locale, TimeZone zone)
+            throws ParseException {
+        FastDatePattern pattern = FastDatePattern.compile(patternText, locale,
+                ZoneOffsetTable.create(zone, TABLE_TIME));
+        assertNotNull(patternText, pattern);
+        SimpleDateFormat format = new SimpleDateFormat(patternText, locale);
+        format.setTimeZone(zone);
+        Calendar calendar = new GregorianCalendar(zone, locale);
+        calendar.clear();
+        calendar.set(1999, Calendar.DECEMBER, 1);
+        StringBuilder buffer = new StringBuilder();
+        int checks = 0;
+        int fastParses = 0;
+        while (calendar.get(Calendar.YEAR) < 2031) {
+            for (int[] time : TIMES_OF_DAY) {
+                calendar.set(Calendar.HOUR_OF_DAY, time[0]);
+                calendar.set(Calendar.MINUTE, time[1]);
+                calendar.set(Calendar.SECOND, time[2]);
+                calendar.set(Calendar.MILLISECOND, time[3]);
+                long millis = calendar.getTimeInMillis();
+                String expected = format.format(calendar.getTime());
+                buffer.setLength(0);
+                assertTrue(pattern.format(millis, buffer));
+                assertEquals(expected, buffer.toString());
+                checks++;
+                long parsed = pattern.parse(expected);
+                if (parsed != FastDatePattern.FAILED) {
+                    assertEquals(expected, format.parse(expected).getTime(), parsed);
+                    fastParses++;
+                }
+            }
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        // only the days around a transition of the timezone may be left to SimpleDateFormat
+        assertTrue(patternText + " " + zone.getID(), fastParses > checks * 0.95);
+    }
+}
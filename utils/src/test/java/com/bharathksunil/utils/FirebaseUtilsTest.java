@@ -0,0 +1,90 @@
+package com.bharathksunil.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that the key escaping of {@link FirebaseUtils} is reversible and never produces a
+ * character that is not allowed in a Real-time database key.
+ */
+public class FirebaseUtilsTest {
+
+    private static final String FORBIDDEN = ".$#[]/";
+    private static final String ALPHABET = "aZ09._-%$#[]/ @\u0000\u001f\u007f\u00e9\u0130\ud83d\ude00";
+    private static final int RANDOM_STRINGS = 200000;
+
+    @Test
+    public void escapeKey_roundTripsRandomStrings() {
+        Random random = new Random(17);
+        StringBuilder buffer = new StringBuilder();
+        for (int i = 0; i < RANDOM_STRINGS; i++) {
+            String text = RandomStrings.of(random, ALPHABET, 15);
+            String key = FirebaseUtils.escapeKey(text);
+            assertAllowedInKey(key);
+            assertEquals(text, FirebaseUtils.unescapeKey(key));
+
+            buffer.setLength(0);
+            FirebaseUtils.appendEscapedKey(text, buffer);
+            assertEquals(key, buffer.toString());
+            buffer.setLength(0);
+            FirebaseUtils.appendUnescapedKey(key, buffer);
+            assertEquals(text, buffer.toString());
+        }
+    }
+
+    @Test
+    public void escapeKey_returnsSafeStringsUnchanged() {
+        String text = "john_dot_doe@example_com";
+        assertSame(text, FirebaseUtils.escapeKey(text));
+        assertSame(text, FirebaseUtils.unescapeKey(text));
+    }
+
+    @Test
+    public void escapeKey_keepsDistinctStringsDistinct() {
+        assertNotEquals(FirebaseUtils.escapeKey("a.b"), FirebaseUtils.escapeKey("a%2Eb"));
+        assertNotEquals(FirebaseUtils.escapeKey("a.b"), FirebaseUtils.escapeKey("a_dot_b"));
+        assertEquals("A%2Eb%25c", FirebaseUtils.escapeKey("A.b%c"));
+        assertEquals("A.b%c", FirebaseUtils.unescapeKey("A%2eb%25c"));
+    }
+
+    @Test
+    public void unescapeKey_rejectsInvalidEscapes() {
+        // full width and Arabic-Indic digits are not hex digits of an escape
+        String[] keys = {"%", "a%2", "%zz", "%2g", "%\uff11\uff12", "%\u0661\u0662"};
+        for (String key : keys) {
+            try {
+                FirebaseUtils.unescapeKey(key);
+                fail("accepted " + key);
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void emailKey_matchesTheRegexImplementation() {
+        String[] emails = {"John.Doe@Example.com", "plain@mail", "a_dot_b@x.io", "UPPER@X"};
+        for (String email : emails) {
+            assertEquals(email.toLowerCase().replaceAll("\\.", "_dot_"),
+                    FirebaseUtils.getEmailAsFirebaseKey(email));
+            assertEquals(email.replaceAll("_dot_", "\\.").toLowerCase(),
+                    FirebaseUtils.getEmailFromFirebaseKey(email));
+        }
+    }
+
+    private static void assertAllowedInKey(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            assertFalse(key, FORBIDDEN.indexOf(c) >= 0);
+            assertTrue(key, c >= 0x20 && c != 0x7F);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.bharathksunil.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that the counters and the email state of {@link IncrementalTextValidator}, kept up to
+ * date edit by edit, agree with a full scan of the text after each edit.
+ */
+public class IncrementalTextValidatorTest {
+
+    private static final String PASSWORD_ALPHABET = "abxyABXY0189@#$%+=!-_. \t\n\r"
+            + "\u0085\u2028\u00e9";
+    private static final String EMAIL_ALPHABET = "abzAZ09._-+@!\n\r\u2028\u00e9";
+    private static final int EDITS = 200000;
+
+    @Test
+    public void edits_matchAFullScanOfThePassword() {
+        PasswordPolicy policy = PasswordPolicy.builder()
+                .mustHaveDigit()
+                .mustHaveLowerCaseAlpha()
+                .mustHaveUpperCaseAlpha()
+                .mustHaveSpecialChar()
+                .mustNotHaveWhiteSpaces()
+                .minimumLength(6)
+                .build();
+        IncrementalTextValidator validator = new IncrementalTextValidator(
+                ValidationConfig.builder().passwordPolicy(policy).build());
+        StringBuilder text = new StringBuilder("Passw0rd#");
+        validator.reset(text);
+        Random random = new Random(17);
+        int strong = 0;
+        for (int i = 0; i < EDITS; i++) {
+            editAtRandom(validator, text, random, PASSWORD_ALPHABET);
+            String password = text.toString();
+            assertEquals(password, password.length(), validator.getLength());
+            assertEquals(password, count(password, "0123456789"), validator.getDigitCount());
+            assertEquals(password, count(password, " \t\n\r\u0085\u2028"),
+                    validator.getWhiteSpaceCount());
+            assertEquals(password, policy.isSatisfiedBy(password), validator.isPasswordStrong());
+            assertEquals(password, policy.getFailedRules(password),
+                    validator.getFailedPasswordRules());
+            if (validator.isPasswordStrong()) {
+                strong++;
+            }
+        }
+        assertTrue("too few strong passwords edited: " + strong, strong > 1000);
+    }
+
+    @Test
+    public void edits_matchAFullScanOfTheEmail() {
+        IncrementalTextValidator validator = new IncrementalTextValidator(ValidationConfig.DEFAULT);
+        StringBuilder text = new StringBuilder("john.doe+news@mail.example.com");
+        validator.reset(text);
+        Random random = new Random(19);
+        int valid = 0;
+        for (int i = 0; i < EDITS; i++) {
+            editAtRandom(validator, text, random, EMAIL_ALPHABET);
+            String email = text.toString();
+            boolean expected = DefaultValidators.isEmailValid(email);
+            assertEquals(email, expected, validator.isEmailValid());
+            if (expected) {
+                valid++;
+            } else if (random.nextInt(10) == 0) {
+                // start again from a valid email, as most edits of an invalid one keep it invalid
+                replace(validator, text, 0, text.length(), "a" + i + ".b@c" + i + ".de");
+            }
+        }
+        assertTrue("too few valid emails edited: " + valid, valid > 10000);
+    }
+
+    @Test
+    public void isEmailValid_usesTheEmailRegexOfTheConfig() {
+        IncrementalTextValidator validator = new IncrementalTextValidator(
+                ValidationConfig.builder().emailRegex(Pattern.compile("^\\w+@corp$")).build());
+        StringBuilder text = new StringBuilder();
+        replace(validator, text, 0, 0, "john@corp");
+        assertTrue(validator.isEmailValid());
+        replace(validator, text, 4, 5, "@example.com");
+        assertFalse(validator.isEmailValid());
+    }
+
+    @Test
+    public void constructor_rejectsAPasswordRegex() {
+        try {
+            new IncrementalTextValidator(
+                    ValidationConfig.builder().passwordRegex(Pattern.compile(".{8,}")).build());
+            fail("accepted a password regex");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+
+    /**
+     * Inserts, deletes or replaces a few characters, or now and then a longer run like a paste
+     */
+    private static void editAtRandom(IncrementalTextValidator validator, StringBuilder text,
+                                     Random random, String alphabet) {
+        int start = random.nextInt(text.length() + 1);
+        int maxRemoved = Math.min(text.length() - start, random.nextInt(20) == 0 ? 12 : 2);
+        int removed = random.nextInt(maxRemoved + 1);
+        int maxInserted = random.nextInt(20) == 0 ? 12 : text.length() > 40 ? 1 : 2;
+        replace(validator, text, start, removed,
+                RandomStrings.of(random, alphabet, maxInserted));
+    }
+
+    /**
+     * Edits the text the way a text field notifies its watchers
+     */
+    private static void replace(IncrementalTextValidator validator, StringBuilder text, int start,
+                                int removed, String inserted) {
+        validator.beforeTextChanged(text, start, removed, inserted.length());
+        text.replace(start, start + removed, inserted);
+        validator.onTextChanged(text, start, removed, inserted.length());
+    }
+
+    private static int count(String text, String chars) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (chars.indexOf(text.charAt(i)) >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,169 @@
+package com.bharathksunil.utils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that {@link JsonKeyRewriter} rewrites only the object keys of a document, wherever the
+ * keys, strings and escapes fall in its buffers.
+ */
+public class JsonKeyRewriterTest {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    @Test
+    public void rewrite_rewritesTheKeysOfObjectsInArrays() throws IOException {
+        assertRewrite("{\"users\":[{\"a.b\":1},{\"c.d\":[{\"e.f\":[2, 3]}]}], \"g\" : {}}",
+                "{\"users\":[{\"a%2Eb\":1},{\"c%2Ed\":[{\"e%2Ef\":[2, 3]}]}], \"g\" : {}}",
+                KeyTransform.ESCAPE);
+        assertRewrite("[\"a.b\", {\"a.b\": \"a.b\"}, [\"a.b\"]]",
+                "[\"a.b\", {\"a%2Eb\": \"a.b\"}, [\"a.b\"]]", KeyTransform.ESCAPE);
+    }
+
+    @Test
+    public void rewrite_copiesStringValuesWithBracketsAndQuotes() throws IOException {
+        String value = "\"{\\\"x.y\\\": [}] \\\\\\\" ,\\\"z.w\\\":\"";
+        assertRewrite("{\"k.1\":" + value + ",\"k.2\":[" + value + "," + value + "]}",
+                "{\"k%2E1\":" + value + ",\"k%2E2\":[" + value + "," + value + "]}",
+                KeyTransform.ESCAPE);
+    }
+
+    @Test
+    public void rewrite_decodesAndEncodesTheEscapesOfKeys() throws IOException {
+        assertRewrite("{\"a\\u002Eb\":1,\"\\u00e9\\/x\":2,\"q\\\"t\":3}",
+                "{\"a%2Eb\":1,\"\u00e9%2Fx\":2,\"q\\\"t\":3}", KeyTransform.ESCAPE);
+        assertRewrite("{\"a%0Ab\":1,\"c%22d%5C\":2}", "{\"a\\u000ab\":1,\"c\\\"d\\\\\":2}",
+                KeyTransform.UNESCAPE);
+    }
+
+    @Test
+    public void rewrite_rejectsUnbalancedDocuments() {
+        String[] documents = {"{\"a\":1", "{\"a\":1]", "]", "[{\"a\":[1}]", "{\"a\":\"x",
+                "{\"a", "{\"a\\"};
+        for (String document : documents) {
+            assertRejected(document, KeyTransform.ESCAPE);
+        }
+    }
+
+    @Test
+    public void rewrite_rejectsInvalidKeys() {
+        try {
+            rewrite("{\"x%zz\":1}", KeyTransform.UNESCAPE);
+            fail("accepted an invalid escape");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("x%zz"));
+        }
+        // only ASCII hex digits are allowed in unicode escapes
+        assertRejected("{\"\\u00g0\":1}", KeyTransform.ESCAPE);
+        assertRejected("{\"\\u\uff10\uff10\uff14\uff11\":1}", KeyTransform.ESCAPE);
+    }
+
+    @Test
+    public void rewrite_handlesTokensAcrossTheBufferBoundary() throws IOException {
+        // the key, its escapes and the string value after it start at each offset around the end
+        // of the first buffer
+        for (int padding = BUFFER_SIZE - 40; padding < BUFFER_SIZE + 8; padding++) {
+            String prefix = "{\"pad\":\"" + repeat('x', padding) + "\",";
+            String input = prefix + "\"a\\u002Eb\":\"{\\\"c.d\\\"}\",\"e.f\":[{\"g.h\":1}]}";
+            String expected = prefix + "\"a%2Eb\":\"{\\\"c.d\\\"}\",\"e%2Ef\":[{\"g%2Eh\":1}]}";
+            assertRewrite(input, expected, KeyTransform.ESCAPE);
+        }
+    }
+
+    @Test
+    public void rewrite_handlesReadersReturningSmallChunks() throws IOException {
+        StringBuilder input = new StringBuilder("[");
+        StringBuilder expected = new StringBuilder("[");
+        for (int i = 0; i < 2000; i++) {
+            String separator = i == 0 ? "" : ",";
+            input.append(separator).append("{\"k.").append(i).append("\":\"v.\\\"").append(i)
+                    .append("\"}");
+            expected.append(separator).append("{\"k%2E").append(i).append("\":\"v.\\\"")
+                    .append(i).append("\"}");
+        }
+        input.append(']');
+        expected.append(']');
+        StringWriter out = new StringWriter();
+        JsonKeyRewriter.rewrite(new ChunkedReader(input.toString(), new Random(9)), out,
+                KeyTransform.ESCAPE);
+        assertEquals(expected.toString(), out.toString());
+    }
+
+    @Test
+    public void rewrite_readsAndWritesUtf8Streams() throws IOException {
+        String input = "{\"\u00e9.\u00fc\":\"\u00fc.\u00e9\"}";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonKeyRewriter.rewrite(new ByteArrayInputStream(input.getBytes("UTF-8")), out,
+                KeyTransform.ESCAPE);
+        assertEquals("{\"\u00e9%2E\u00fc\":\"\u00fc.\u00e9\"}", out.toString("UTF-8"));
+    }
+
+    private static void assertRewrite(String input, String expected, KeyTransform transform)
+            throws IOException {
+        assertEquals(expected, rewrite(input, transform));
+    }
+
+    private static void assertRejected(String input, KeyTransform transform) {
+        try {
+            rewrite(input, transform);
+            fail("accepted " + input);
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    private static String rewrite(String input, KeyTransform transform) throws IOException {
+        StringWriter out = new StringWriter();
+        JsonKeyRewriter.rewrite(new StringReader(input), out, transform);
+        return out.toString();
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder text = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            text.append(c);
+        }
+        return text.toString();
+    }
+
+    /**
+     * A reader which returns at most a few characters per read
+     */
+    private static final class ChunkedReader extends Reader {
+        private final String text;
+        private final Random random;
+        private int position;
+
+        private ChunkedReader(String text, Random random) {
+            this.text = text;
+            this.random = random;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == text.length()) {
+                return -1;
+            }
+            int count = Math.min(Math.min(length, 1 + random.nextInt(7)),
+                    text.length() - position);
+            text.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.bharathksunil.utils;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that the single pass {@link PasswordPolicy} accepts the same passwords as the regular
+ * expressions built from the MUST_* constants of {@link ValidationUtil}.
+ */
+public class PasswordPolicyTest {
+
+    private static final String ALPHABET = "abcxyzABCXYZ0189@#$%^&+=!-_. \t\n\u000b\f\r"
+            + "\u0085\u2028\u2029\u00e9\u00a0";
+    private static final Pattern FINAL_LINE_TERMINATOR =
+            Pattern.compile("(\\r\\n|[\\n\\r\\u0085\\u2028\\u2029])\\z");
+    private static final int RANDOM_STRINGS = 500000;
+
+    @Test
+    public void isSatisfiedBy_matchesThePatternOfTheDefaultPolicy() {
+        assertMatchesPattern(PasswordPolicy.DEFAULT, new Random(3));
+    }
+
+    @Test
+    public void isSatisfiedBy_matchesThePatternOfAPolicyWithAllRules() {
+        PasswordPolicy policy = PasswordPolicy.builder()
+                .mustHaveDigit()
+                .mustHaveLowerCaseAlpha()
+                .mustHaveUpperCaseAlpha()
+                .mustHaveSpecialChar()
+                .mustNotHaveWhiteSpaces()
+                .minimumLength(6)
+                .build();
+        assertMatchesPattern(policy, new Random(5));
+    }
+
+    @Test
+    public void isSatisfiedBy_rejectsLineTerminatorsAsWhiteSpace() {
+        assertFalse(PasswordPolicy.DEFAULT.isSatisfiedBy("pass\u2028word1"));
+        assertFalse(PasswordPolicy.DEFAULT.isSatisfiedBy("pass\u0085word1"));
+        assertFalse(PasswordPolicy.DEFAULT.isSatisfiedBy("password1\u2029"));
+        assertTrue(PasswordPolicy.DEFAULT.isSatisfiedBy("password1"));
+    }
+
+    @Test
+    public void getFailedRules_reportsEachFailedRule() {
+        assertEquals(EnumSet.noneOf(PasswordRule.class),
+                PasswordPolicy.DEFAULT.getFailedRules("passw0rd"));
+        assertEquals(EnumSet.of(PasswordRule.DIGIT, PasswordRule.NO_WHITE_SPACES,
+                PasswordRule.MINIMAL_LENGTH), PasswordPolicy.DEFAULT.getFailedRules("a b"));
+        assertEquals(EnumSet.of(PasswordRule.LOWER_CASE_ALPHA),
+                PasswordPolicy.DEFAULT.getFailedRules("PASSW0RD"));
+    }
+
+    @Test
+    public void builder_minimumLengthOfZeroRemovesTheRule() {
+        PasswordPolicy policy = PasswordPolicy.builder().minimumLength(4).minimumLength(0).build();
+        assertEquals(EnumSet.noneOf(PasswordRule.class), policy.getRules());
+        assertTrue(policy.isSatisfiedBy(""));
+        try {
+            PasswordPolicy.builder().minimumLength(-1);
+            fail("accepted a negative length");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    /**
+     * The pattern is used with find() like {@link ValidationConfig}, where $ also matches before
+     * a final line terminator, the only case in which the two may differ
+     */
+    private static void assertMatchesPattern(PasswordPolicy policy, Random random) {
+        Pattern pattern = policy.toPattern();
+        for (int i = 0; i < RANDOM_STRINGS; i++) {
+            String password = RandomStrings.of(random, ALPHABET, 13);
+            boolean expected = pattern.matcher(password).find();
+            if (expected != policy.isSatisfiedBy(password)) {
+                assertTrue(password, expected);
+                String trimmed = FINAL_LINE_TERMINATOR.matcher(password).replaceFirst("");
+                assertTrue(password, trimmed.length() < password.length());
+                assertTrue(password, policy.isSatisfiedBy(trimmed));
+            }
+        }
+    }
+}
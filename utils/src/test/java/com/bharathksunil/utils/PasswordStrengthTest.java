@@ -0,0 +1,73 @@
+package com.bharathksunil.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the entropy estimate and score of {@link PasswordStrength}, and that the single pass of
+ * {@link PasswordPolicy#getStrength(CharSequence)} reports the same rules as the policy.
+ */
+public class PasswordStrengthTest {
+
+    private static final double DELTA = 1e-9;
+    private static final String ALPHABET = "abcxyzABCXYZ0189@#$%!-_. \t\u00e9\u0085";
+
+    @Test
+    public void getEntropyBits_addsTheSizeOfEachCharacterClass() {
+        int digits = PasswordRule.DIGIT.mask();
+        int lowerCase = PasswordRule.LOWER_CASE_ALPHA.mask();
+        assertEquals(8 * log2(10), PasswordStrength.getEntropyBits(8, 0, digits, false, false),
+                DELTA);
+        assertEquals(10 * log2(36), PasswordStrength.getEntropyBits(10, 0, digits | lowerCase,
+                false, false), DELTA);
+        assertEquals(4 * log2(26 + 24 + 64) + 2, PasswordStrength.getEntropyBits(6, 2,
+                lowerCase, true, true), DELTA);
+        assertEquals(0, PasswordStrength.getEntropyBits(0, 0, 0, false, false), DELTA);
+    }
+
+    @Test
+    public void getStrength_ratesCommonAndPredictablePasswordsAsVeryWeak() {
+        PasswordStrength common = PasswordPolicy.DEFAULT.getStrength("Passw0rd");
+        assertTrue(common.isCommon());
+        assertFalse(common.isAcceptable());
+        assertEquals(0, common.getEntropyBits(), DELTA);
+        assertEquals(PasswordStrength.SCORE_VERY_WEAK, common.getScore());
+
+        assertEquals(PasswordStrength.SCORE_VERY_WEAK,
+                PasswordPolicy.DEFAULT.getStrength("zzzzzzzzzzzzzzzz").getScore());
+        assertEquals(PasswordStrength.SCORE_VERY_WEAK,
+                PasswordPolicy.DEFAULT.getStrength("abcdefghijklmnop").getScore());
+    }
+
+    @Test
+    public void getStrength_ratesLongMixedPasswordsAsStrong() {
+        PasswordStrength strength = PasswordPolicy.DEFAULT.getStrength("Tr0ub4dor&3xK9");
+        assertTrue(strength.isAcceptable());
+        assertEquals(PasswordStrength.SCORE_STRONG, strength.getScore());
+        assertEquals(PasswordStrength.SCORE_VERY_STRONG, PasswordPolicy.DEFAULT
+                .getStrength("Tr0ub4dor&3xK9Tr0ub4dor&3xK9").getScore());
+    }
+
+    @Test
+    public void getStrength_reportsTheFailedRulesOfThePolicy() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            String password = RandomStrings.of(random, ALPHABET, 13);
+            PasswordStrength strength = PasswordPolicy.DEFAULT.getStrength(password);
+            assertEquals(password, PasswordPolicy.DEFAULT.getFailedRules(password),
+                    strength.getFailedRules());
+            assertEquals(password, PasswordPolicy.DEFAULT.isSatisfiedBy(password)
+                    && !CommonPasswords.contains(password), strength.isAcceptable());
+            assertTrue(password, strength.getEntropyBits() >= 0);
+        }
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+}
@@ -0,0 +1,30 @@
+package com.bharathksunil.utils;
+
+import java.util.Random;
+
+/**
+ * The random strings of the tests which compare an implementation with a reference one
+ */
+final class RandomStrings {
+
+    private RandomStrings() {
+    }
+
+    /**
+     * @return a string of 0 to maxLength characters picked at random from the alphabet
+     */
+    static String of(Random random, String alphabet, int maxLength) {
+        return ofLength(random, alphabet, random.nextInt(maxLength + 1));
+    }
+
+    /**
+     * @return a string of the length, of characters picked at random from the alphabet
+     */
+    static String ofLength(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,106 @@
+package com.bharathksunil.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link RelativeTimeUtils#getNextLabelChange(long, long)}, which schedules the shared
+ * tick of the bound labels, gives the exact time at which the label of a time changes.
+ */
+public class RelativeTimeUtilsTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final long WEEK = TimeUnit.DAYS.toMillis(7);
+    private static final long TIME = 1500000000000L;
+
+    @Test
+    public void getNextLabelChange_justNowChangesAfterAMinute() {
+        assertEquals(TIME + MINUTE, RelativeTimeUtils.getNextLabelChange(TIME, TIME));
+        assertEquals(TIME + MINUTE, RelativeTimeUtils.getNextLabelChange(TIME, TIME + MINUTE - 1));
+    }
+
+    @Test
+    public void getNextLabelChange_minutesChangeEachMinute() {
+        assertEquals(TIME + 2 * MINUTE, RelativeTimeUtils.getNextLabelChange(TIME, TIME + MINUTE));
+        assertEquals(TIME + 6 * MINUTE,
+                RelativeTimeUtils.getNextLabelChange(TIME, TIME + 5 * MINUTE + 30000));
+        assertEquals(TIME + HOUR, RelativeTimeUtils.getNextLabelChange(TIME, TIME + HOUR - 1));
+    }
+
+    @Test
+    public void getNextLabelChange_hoursChangeEachHour() {
+        assertEquals(TIME + 2 * HOUR, RelativeTimeUtils.getNextLabelChange(TIME, TIME + HOUR));
+        assertEquals(TIME + 4 * HOUR,
+                RelativeTimeUtils.getNextLabelChange(TIME, TIME + 3 * HOUR + MINUTE));
+        assertEquals(TIME + DAY, RelativeTimeUtils.getNextLabelChange(TIME, TIME + DAY - 1));
+    }
+
+    @Test
+    public void getNextLabelChange_daysChangeEachDay() {
+        assertEquals(TIME + 2 * DAY, RelativeTimeUtils.getNextLabelChange(TIME, TIME + DAY));
+        assertEquals(TIME + 4 * DAY,
+                RelativeTimeUtils.getNextLabelChange(TIME, TIME + 3 * DAY + HOUR));
+        assertEquals(TIME + WEEK, RelativeTimeUtils.getNextLabelChange(TIME, TIME + WEEK - 1));
+    }
+
+    @Test
+    public void getNextLabelChange_neverChangesAfterAWeek() {
+        assertEquals(Long.MAX_VALUE, RelativeTimeUtils.getNextLabelChange(TIME, TIME + WEEK));
+        assertEquals(Long.MAX_VALUE,
+                RelativeTimeUtils.getNextLabelChange(TIME, TIME + 365 * DAY));
+        assertEquals(Long.MAX_VALUE, RelativeTimeUtils.getNextLabelChange(0, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void getNextLabelChange_futureTimesAreJustNowUntilAMinuteAfterThem() {
+        assertEquals(TIME + MINUTE, RelativeTimeUtils.getNextLabelChange(TIME, TIME - 1));
+        assertEquals(TIME + MINUTE, RelativeTimeUtils.getNextLabelChange(TIME, TIME - 3 * DAY));
+    }
+
+    @Test
+    public void getNextLabelChange_isWhenTheLabelChanges() {
+        Random random = new Random(23);
+        for (int i = 0; i < 100000; i++) {
+            long now = TIME + random.nextInt(1000);
+            // elapsed times spread over all the thresholds, future ones included
+            long elapsed = (long) (Math.pow(2, random.nextDouble() * 31) - 2);
+            long time = now - elapsed * (random.nextInt(10) == 0 ? -1 : 1) * 1000
+                    - random.nextInt(1000);
+            long next = RelativeTimeUtils.getNextLabelChange(time, now);
+            String label = getLabel(time, now);
+            if (next == Long.MAX_VALUE) {
+                assertEquals(label, getLabel(time, now + 100 * WEEK));
+                continue;
+            }
+            assertTrue(next > now);
+            assertEquals(label, getLabel(time, next - 1));
+            assertNotEquals(label, getLabel(time, next));
+        }
+    }
+
+    /**
+     * The label of {@link RelativeTimeUtils#getRelativeTimeLabel}, with the unit and count for
+     * the text of the resources
+     */
+    private static String getLabel(long time, long now) {
+        long elapsed = now - time;
+        if (elapsed < MINUTE) {
+            return "just now";
+        } else if (elapsed < HOUR) {
+            return elapsed / MINUTE + " min";
+        } else if (elapsed < DAY) {
+            return elapsed / HOUR + " h";
+        } else if (elapsed < WEEK) {
+            return elapsed / DAY + " d";
+        }
+        return "date";
+    }
+}
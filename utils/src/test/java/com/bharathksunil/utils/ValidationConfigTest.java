@@ -0,0 +1,95 @@
+package com.bharathksunil.utils;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the rules of a {@link ValidationConfig} and that its builder never changes a built
+ * config.
+ */
+public class ValidationConfigTest {
+
+    @Test
+    public void defaultConfig_usesTheDefaultRules() {
+        ValidationConfig config = ValidationConfig.DEFAULT;
+        assertSame(PasswordPolicy.DEFAULT, config.getPasswordPolicy());
+        assertNull(config.getPasswordRegex());
+        assertNull(config.getEmailRegex());
+        assertNull(config.getPhoneNumberRegex());
+        assertTrue(config.isEmailValid("john.doe@example.com"));
+        assertFalse(config.isEmailValid("john.doe@example"));
+        assertTrue(config.isPhoneNumberValid("9876543210"));
+        assertFalse(config.isPhoneNumberValid("5876543210"));
+        assertTrue(config.isPasswordStrong("passw0rd"));
+        assertFalse(config.isPasswordStrong("password"));
+    }
+
+    @Test
+    public void passwordRegex_replacesThePolicyUntilAPolicyIsSet() {
+        ValidationConfig config = ValidationConfig.builder()
+                .passwordRegex(Pattern.compile("^.{4,}$"))
+                .build();
+        assertTrue(config.isPasswordStrong("abcd"));
+        assertFalse(config.isPasswordStrong("abc"));
+        try {
+            config.getFailedPasswordRules("abc");
+            fail("reported the rules of a regular expression");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+        try {
+            config.getPasswordStrength("abc");
+            fail("rated a password with a regular expression");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        ValidationConfig withPolicy = config.toBuilder()
+                .passwordPolicy(PasswordPolicy.DEFAULT)
+                .build();
+        assertNull(withPolicy.getPasswordRegex());
+        assertFalse(withPolicy.isPasswordStrong("abcd"));
+        assertEquals(EnumSet.of(PasswordRule.DIGIT, PasswordRule.MINIMAL_LENGTH),
+                withPolicy.getFailedPasswordRules("abcd"));
+        assertTrue(config.isPasswordStrong("abcd"));
+    }
+
+    @Test
+    public void phoneNumberRegex_isLookedUpByCountry() {
+        Pattern us = Pattern.compile("^\\d{3}-\\d{3}-\\d{4}$");
+        ValidationConfig config = ValidationConfig.builder()
+                .phoneNumberRegex("us", us)
+                .build();
+        assertSame(us, config.getPhoneNumberRegex("US"));
+        assertNull(config.getPhoneNumberRegex("IN"));
+        assertTrue(config.isPhoneNumberValid("212-555-0100", "Us"));
+        assertTrue(config.isPhoneNumberValid("212-555-0100", Locale.US));
+        assertFalse(config.isPhoneNumberValid("9876543210", Locale.US));
+        // the countries without a rule of their own use the default one
+        assertTrue(config.isPhoneNumberValid("9876543210", "IN"));
+        assertFalse(config.isPhoneNumberValid("212-555-0100", "IN"));
+    }
+
+    @Test
+    public void toBuilder_doesNotChangeTheConfig() {
+        ValidationConfig config = ValidationConfig.builder()
+                .phoneNumberRegex("US", Pattern.compile("^1$"))
+                .build();
+        ValidationConfig.Builder builder = config.toBuilder()
+                .phoneNumberRegex("US", Pattern.compile("^2$"))
+                .emailRegex(Pattern.compile("@"));
+        builder.build();
+        assertTrue(config.isPhoneNumberValid("1", "US"));
+        assertNull(config.getEmailRegex());
+    }
+}
@@ -0,0 +1,91 @@
+package com.bharathksunil.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the bulk validation of {@link ValidationUtil}, sequential and in parallel, gives the
+ * same result as validating each value on its own.
+ */
+public class ValidationUtilBatchTest {
+
+    private static final String[] EMAILS = {"john.doe@example.com", "a+b@x.io", "john..doe@x.io",
+            "no-at-sign.example.com", "jane@example.c", "x@y.co\n", "", null};
+    private static final String[] PHONE_NUMBERS = {"9876543210", "6000000000", "5876543210",
+            "987654321", "98765432100", "98765 43210", "", null};
+    private static final int BATCH_SIZE = 5000;
+
+    @After
+    public void tearDown() {
+        ValidationUtil.setConfig(ValidationConfig.DEFAULT);
+    }
+
+    @Test
+    public void validateEmails_matchesEachEmail() {
+        List<String> emails = randomBatch(new Random(1), EMAILS);
+        BitSet expected = new BitSet();
+        for (int i = 0; i < emails.size(); i++) {
+            String email = emails.get(i);
+            expected.set(i, email != null && ValidationUtil.isEmailValid(email));
+        }
+        assertEquals(expected, ValidationUtil.validateEmails(emails));
+        assertEquals(expected, ValidationUtil.validateEmailsInParallel(emails));
+    }
+
+    @Test
+    public void validatePhoneNumbers_matchesEachPhoneNumberWithARegex() {
+        ValidationUtil.setValidPhoneNumberRegex(Pattern.compile("^\\d{9,10}$"));
+        List<String> phones = randomBatch(new Random(2), PHONE_NUMBERS);
+        BitSet expected = new BitSet();
+        for (int i = 0; i < phones.size(); i++) {
+            String phone = phones.get(i);
+            expected.set(i, phone != null && ValidationUtil.isPhoneNumberValid(phone));
+        }
+        assertEquals(expected, ValidationUtil.validatePhoneNumbers(phones));
+        assertEquals(expected, ValidationUtil.validatePhoneNumbersInParallel(phones));
+    }
+
+    @Test
+    public void validateContacts_setsTwoBitsPerContact() {
+        Random random = new Random(3);
+        List<String[]> contacts = new ArrayList<>();
+        BitSet expected = new BitSet();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            String email = EMAILS[random.nextInt(EMAILS.length)];
+            String phone = PHONE_NUMBERS[random.nextInt(PHONE_NUMBERS.length)];
+            contacts.add(new String[]{email, phone});
+            expected.set(2 * i, email != null && ValidationUtil.isEmailValid(email));
+            expected.set(2 * i + 1, phone != null && ValidationUtil.isPhoneNumberValid(phone));
+        }
+        ValidationUtil.ContactFields<String[]> fields =
+                new ValidationUtil.ContactFields<String[]>() {
+                    @Override
+                    public CharSequence getEmail(String[] contact) {
+                        return contact[0];
+                    }
+
+                    @Override
+                    public CharSequence getPhoneNumber(String[] contact) {
+                        return contact[1];
+                    }
+                };
+        assertEquals(expected, ValidationUtil.validateContacts(contacts, fields));
+        assertEquals(expected, ValidationUtil.validateContactsInParallel(contacts, fields));
+    }
+
+    private static List<String> randomBatch(Random random, String[] values) {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(values[random.nextInt(values.length)]);
+        }
+        return batch;
+    }
+}